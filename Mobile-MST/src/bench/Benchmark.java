@@ -0,0 +1,297 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+
+import drawings.Edge;
+import drawings.GraphDrawing;
+import drawings.LineSegment;
+import drawings.MovingPointSet2D;
+import main.SamplingEngine;
+
+//measures the throughput and allocation rate of every algorithm on random pointsets of the given sizes
+//
+//usage: java bench.Benchmark [-n 10,20,30] [-seed 13052021] [-pointsets 16] [-warmup 3] [-iterations 5]
+//                            [-time 1000] [-shared] [-only kruskal,branchAndBound,...]
+//
+//every operation runs the algorithm on the next of a fixed set of pointsets derived from the seed like the samples
+//of a sampling run, on a fresh copy of it unless -shared is set (then the edge pool and crossing matrix of a
+//pointset are built once and reused by later operations), parallelBranchAndBound searches on the common fork/join pool
+//
+//copies and everything else an operation only reads (the edge pool, endpoint arrays) are prepared outside the timed
+//region, only operations filling the crossing matrix get a fresh copy each time (batches of them hold at most one copy
+//per pointset), the others reuse one copy per pointset
+public class Benchmark {
+
+	//an algorithm under measurement: prepare builds the state of one operation on the pointset outside the timed region,
+	//run returns a value derived from the result so that it can't be optimized away
+	private interface Workload {
+		Object prepare(MovingPointSet2D pointset);
+		long run(Object state);
+
+		//does an operation fill lazily computed parts of its state, so that every operation needs a fresh copy?
+		boolean fillsState();
+	}
+
+	private static final String[] NAMES = {
+			"kruskal", "crossingStableMST", "movingKruskal", "optimalSlow", "branchAndBound", "parallelBranchAndBound", "yMonotonePath",
+			"completeGraphSetminusPK", "isCrossing"};
+
+	private static final Workload[] WORKLOADS = {
+			drawing(GraphDrawing::kruskal, false),
+			drawing(GraphDrawing::crossingStableMST, false),
+			drawing(GraphDrawing::movingKruskal, false),
+			drawing(GraphDrawing::optimalSlow, true),
+			drawing(GraphDrawing::branchAndBound, true),
+			drawing(GraphDrawing::parallelBranchAndBound, true),
+			drawing(drawing -> Double.doubleToRawLongBits(drawing.yMonotonePath()), false),
+			drawing(drawing -> {
+				drawing.completeGraphSetminusPK();
+				return drawing.getEdgeList().size();
+			}, false),
+			new Workload() {
+				@Override
+				public Object prepare(MovingPointSet2D pointset) {
+					return endpoints(pointset);
+				}
+
+				@Override
+				public long run(Object state) {
+					return crossings((int[][]) state);
+				}
+
+				@Override
+				public boolean fillsState() {
+					return false;
+				}
+			}};
+
+	//the results of all operations end up here
+	private static volatile long sink;
+
+	private int[] sizes = {10, 20, 30};
+	private long seed = 13052021;
+	private int pointsets = 16;
+	private int warmupIterations = 3;
+	private int iterations = 5;
+	private long iterationNanos = 1000000000L;
+	private boolean shared = false;
+	private List<String> selected = new ArrayList<String>(Arrays.asList(NAMES));
+
+	public static void main(String[] args) {
+		Benchmark benchmark = new Benchmark();
+		benchmark.parse(args);
+		benchmark.run();
+	}
+
+	private void parse(String[] args) {
+		for(int i = 0; i < args.length; i++) {
+			switch(args[i]) {
+			case "-n":
+				this.sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray();
+				break;
+			case "-seed":
+				this.seed = Long.parseLong(args[++i]);
+				break;
+			case "-pointsets":
+				this.pointsets = Math.max(1, Integer.parseInt(args[++i]));
+				break;
+			case "-warmup":
+				this.warmupIterations = Integer.parseInt(args[++i]);
+				break;
+			case "-iterations":
+				this.iterations = Math.max(1, Integer.parseInt(args[++i]));
+				break;
+			case "-time":
+				this.iterationNanos = Long.parseLong(args[++i]) * 1000000L;
+				break;
+			case "-shared":
+				this.shared = true;
+				break;
+			case "-only":
+				this.selected = Arrays.asList(args[++i].split(","));
+				for(String name : this.selected) {
+					if(!Arrays.asList(NAMES).contains(name)) {
+						throw new IllegalArgumentException("Unknown benchmark " + name + ", choose from " + Arrays.toString(NAMES));
+					}
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+	}
+
+	private void run() {
+		System.out.println("Benchmark,n,Seed,ns/op,Error ns/op (99.9%),ops/s,Bytes/op");
+		for(int n : this.sizes) {
+			MovingPointSet2D[] instances = instances(n);
+			for(int b = 0; b < NAMES.length; b++) {
+				if(this.selected.contains(NAMES[b])) {
+					measure(NAMES[b], WORKLOADS[b], n, instances);
+				}
+			}
+		}
+	}
+
+	//pointsets of size n, generated like the samples of a sampling run with the benchmark seed
+	private MovingPointSet2D[] instances(int n) {
+		MovingPointSet2D[] instances = new MovingPointSet2D[this.pointsets];
+		for(int i = 0; i < this.pointsets; i++) {
+			Random random = new Random(SamplingEngine.sampleSeed(this.seed, i));
+			instances[i] = new MovingPointSet2D(n);
+			instances[i].randomizeMovingPointSet(random);
+			instances[i].enforceGeneralPosition(random);
+		}
+		return instances;
+	}
+
+	private void measure(String name, Workload workload, int n, MovingPointSet2D[] instances) {
+		//states of the shared pointsets or of one copy per pointset, prepared once, null if every operation needs a fresh copy
+		Object[] fixedStates = null;
+		if(this.shared || !workload.fillsState()) {
+			fixedStates = new Object[instances.length];
+			for(int i = 0; i < instances.length; i++) {
+				fixedStates[i] = workload.prepare(this.shared ? instances[i] : new MovingPointSet2D(instances[i]));
+			}
+		}
+		//operations between two timer reads, doubled during warmup until a batch takes a millisecond
+		int batch = 1;
+		int maxBatch = fixedStates != null ? 1 << 20 : instances.length;
+		Object[] states = new Object[batch];
+		int next = 0;
+		for(int i = 0; i < this.warmupIterations; i++) {
+			long elapsed = 0;
+			while(elapsed < this.iterationNanos) {
+				prepareBatch(workload, instances, fixedStates, states, next, batch);
+				long batchStart = System.nanoTime();
+				runBatch(workload, states, batch);
+				long batchNanos = System.nanoTime() - batchStart;
+				elapsed += batchNanos;
+				next = (next + batch) % instances.length;
+				if(batchNanos < 1000000L && batch < maxBatch) {
+					batch = Math.min(2 * batch, maxBatch);
+					states = new Object[batch];
+				}
+			}
+		}
+
+		double[] nanosPerOp = new double[this.iterations];
+		long allocated = 0;
+		long operations = 0;
+		for(int i = 0; i < this.iterations; i++) {
+			long ops = 0;
+			long elapsed = 0;
+			do {
+				prepareBatch(workload, instances, fixedStates, states, next, batch);
+				long bytesBefore = allocatedBytes();
+				long start = System.nanoTime();
+				runBatch(workload, states, batch);
+				elapsed += System.nanoTime() - start;
+				allocated += allocatedBytes() - bytesBefore;
+				next = (next + batch) % instances.length;
+				ops += batch;
+			} while(elapsed < this.iterationNanos);
+			operations += ops;
+			nanosPerOp[i] = (double) elapsed / ops;
+		}
+
+		double mean = Arrays.stream(nanosPerOp).average().getAsDouble();
+		double variance = Arrays.stream(nanosPerOp).map(x -> (x - mean) * (x - mean)).sum() / Math.max(1, this.iterations - 1);
+		//half width of a 99.9% confidence interval, normal approximation
+		double error = 3.29 * Math.sqrt(variance / this.iterations);
+		String bytesPerOp = allocatedBytes() < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", (double) allocated / operations);
+		System.out.println(String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.1f,%.1f,%s", name, n, this.seed, mean, error, 1e9 / mean, bytesPerOp));
+	}
+
+	//fills states with the states of batch operations starting with the pointset at index next,
+	//fresh copies of the pointsets unless there are fixed states
+	private static void prepareBatch(Workload workload, MovingPointSet2D[] instances, Object[] fixedStates, Object[] states, int next, int batch) {
+		for(int op = 0; op < batch; op++) {
+			states[op] = fixedStates != null ? fixedStates[next] : workload.prepare(new MovingPointSet2D(instances[next]));
+			next = next + 1 == instances.length ? 0 : next + 1;
+		}
+	}
+
+	//runs batch operations on the prepared states
+	private static void runBatch(Workload workload, Object[] states, int batch) {
+		long result = 0;
+		for(int op = 0; op < batch; op++) {
+			result += workload.run(states[op]);
+		}
+		sink += result;
+	}
+
+	//runs an algorithm on a new drawing of the pointset, whose edge pool is built while preparing
+	//(fillsCrossingMatrix tells if the algorithm computes crossing matrix rows)
+	private static Workload drawing(ToLongFunction<GraphDrawing> algorithm, boolean fillsCrossingMatrix) {
+		return new Workload() {
+			@Override
+			public Object prepare(MovingPointSet2D pointset) {
+				pointset.getEdgePool();
+				return pointset;
+			}
+
+			@Override
+			public long run(Object state) {
+				return algorithm.applyAsLong(new GraphDrawing((MovingPointSet2D) state));
+			}
+
+			@Override
+			public boolean fillsState() {
+				return fillsCrossingMatrix;
+			}
+		};
+	}
+
+	//returns the endpoint coordinates {x1, y1, x2, y2} of every edge of the complete graph on the pointset
+	private static int[][] endpoints(MovingPointSet2D pointset) {
+		int[] x = pointset.getxCoords();
+		int[] y = pointset.getyCoords();
+		List<Edge> edges = pointset.getEdgePool().getEdges();
+		int[][] endpoints = new int[4][edges.size()];
+		for(int i = 0; i < edges.size(); i++) {
+			Edge edge = edges.get(i);
+			endpoints[0][i] = x[edge.getSrc()];
+			endpoints[1][i] = y[edge.getSrc()];
+			endpoints[2][i] = x[edge.getDest()];
+			endpoints[3][i] = y[edge.getDest()];
+		}
+		return endpoints;
+	}
+
+	//one operation tests every pair of edges of the complete graph for a crossing
+	private static long crossings(int[][] endpoints) {
+		int[] x1 = endpoints[0];
+		int[] y1 = endpoints[1];
+		int[] x2 = endpoints[2];
+		int[] y2 = endpoints[3];
+		long crossings = 0;
+		for(int i = 0; i < x1.length; i++) {
+			for(int j = i + 1; j < x1.length; j++) {
+				if(LineSegment.isCrossing(x1[i], y1[i], x2[i], y2[i], x1[j], y1[j], x2[j], y2[j])) {
+					crossings++;
+				}
+			}
+		}
+		return crossings;
+	}
+
+	//bytes allocated by the current thread so far, -1 if the JVM can't tell
+	private static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if(threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+			if(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled()) {
+				return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+		}
+		return -1;
+	}
+
+}
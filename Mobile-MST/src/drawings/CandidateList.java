@@ -0,0 +1,129 @@
+package drawings;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CandidateList {
+
+	//candidate edges sorted by weight, the arrays may be longer than the list when it was refilled
+	private Edge[] edges;
+
+	//prefixWeights[i] holds the total weight of the first i candidates
+	private double[] prefixWeights;
+
+	//position of the first remaining candidate, and the position after the last one
+	private int first;
+	private int end;
+
+	//prefixKeys[i] and prefixChecks[i] hold the xor of the candidate keys and checks of the first i candidates in keyTable,
+	//computed once the list is first looked up in a transposition table
+	private TranspositionTable keyTable;
+	private long[] prefixKeys;
+	private long[] prefixChecks;
+
+	public CandidateList(List<Edge> edges) {
+		this.edges = edges.toArray(new Edge[edges.size()]);
+		this.prefixWeights = new double[this.edges.length + 1];
+		for (int i = 0; i < this.edges.length; i++) {
+			this.prefixWeights[i + 1] = this.prefixWeights[i] + this.edges[i].getWeight();
+		}
+		this.first = 0;
+		this.end = this.edges.length;
+	}
+
+	//candidates are all edges of the pool that do not violate the point criterion and are not in the argument bitset over edge ids
+	public CandidateList(EdgePool pool, long[] excluded) {
+		this.edges = new Edge[0];
+		this.prefixWeights = new double[1];
+		refill(pool, excluded);
+	}
+
+	//copies the remaining candidates of the argument list, later refills of either list don't affect the other one
+	public CandidateList(CandidateList other) {
+		this.edges = Arrays.copyOf(other.edges, other.end);
+		this.prefixWeights = Arrays.copyOf(other.prefixWeights, other.end + 1);
+		this.first = other.first;
+		this.end = other.end;
+	}
+
+	//replaces the candidates by all edges of the pool that do not violate the point criterion and are not in the argument bitset,
+	//reusing the arrays of the list once they are large enough
+	void refill(EdgePool pool, long[] excluded) {
+		long[] setminusPK = pool.getSetminusPKBits();
+		int count = 0;
+		for (int w = 0; w < setminusPK.length; w++) {
+			count += Long.bitCount(setminusPK[w] & ~excluded[w]);
+		}
+		if (this.edges.length < count) {
+			//grows like an ArrayList, but never beyond the number of edges a refill can yield
+			int capacity = Math.min(Math.max(count, this.edges.length + (this.edges.length >> 1)), pool.getEdgesSetminusPK().size());
+			this.edges = new Edge[capacity];
+			this.prefixWeights = new double[capacity + 1];
+		}
+		int i = 0;
+		//ids are ranks in the sorted pool, so ascending ids are sorted by weight
+		for (int w = 0; w < setminusPK.length; w++) {
+			long word = setminusPK[w] & ~excluded[w];
+			while (word != 0) {
+				this.edges[i] = pool.getEdge((w << 6) + Long.numberOfTrailingZeros(word));
+				this.prefixWeights[i + 1] = this.prefixWeights[i] + this.edges[i].getWeight();
+				word &= word - 1;
+				i++;
+			}
+		}
+		this.first = 0;
+		this.end = count;
+		this.keyTable = null;
+	}
+
+	//removes and returns the cheapest remaining candidate
+	public Edge removeFirst() {
+		Edge edge = this.edges[this.first];
+		this.first++;
+		return edge;
+	}
+
+	//returns the total weight of the k cheapest remaining candidates
+	public double cheapestWeight(int k) {
+		return this.prefixWeights[this.first + k] - this.prefixWeights[this.first];
+	}
+
+	//returns the number of remaining candidates
+	public int size() {
+		return this.end - this.first;
+	}
+
+	//returns the i-th cheapest remaining candidate
+	public Edge get(int i) {
+		return this.edges[this.first + i];
+	}
+
+	//returns the xor of the candidate keys of all remaining candidates in the argument table
+	long candidateFingerprint(TranspositionTable table) {
+		prepareKeys(table);
+		return this.prefixKeys[this.end] ^ this.prefixKeys[this.first];
+	}
+
+	//returns the xor of the candidate checks of all remaining candidates in the argument table
+	long candidateCheck(TranspositionTable table) {
+		prepareKeys(table);
+		return this.prefixChecks[this.end] ^ this.prefixChecks[this.first];
+	}
+
+	private void prepareKeys(TranspositionTable table) {
+		if (this.keyTable == table) {
+			return;
+		}
+		if (this.prefixKeys == null || this.prefixKeys.length < this.end + 1) {
+			this.prefixKeys = new long[this.edges.length + 1];
+			this.prefixChecks = new long[this.edges.length + 1];
+		}
+		for (int i = 0; i < this.end; i++) {
+			int id = this.edges[i].getId();
+			this.prefixKeys[i + 1] = this.prefixKeys[i] ^ table.candidateKey(id);
+			this.prefixChecks[i + 1] = this.prefixChecks[i] ^ table.candidateCheck(id);
+		}
+		this.keyTable = table;
+	}
+
+}
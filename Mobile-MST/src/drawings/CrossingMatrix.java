@@ -0,0 +1,124 @@
+package drawings;
+
+import java.util.LinkedList;
+
+public class CrossingMatrix {
+
+	private int edgeCount;
+
+	//number of 64 bit words per row
+	private int words;
+
+	//endpoints of every possible edge of the pointset, indexed by edge id
+	private int[] srcs;
+	private int[] dests;
+
+	//initial coordinates of the points, shared with the pointset
+	private int[] xCoords;
+	private int[] yCoords;
+
+	//bit c of row r is set if edge r crosses edge c, a row is only allocated and computed once its edge is first checked for crossings
+	//(null until then, so solvers that only check a few edges don't pay for all of them)
+	private long[][] rows;
+
+	//the id of every argument edge must equal its position in the array
+	public CrossingMatrix(MovingPointSet2D vertices, Edge[] edges) {
+		this.edgeCount = edges.length;
+		this.words = (this.edgeCount + 63) >>> 6;
+		this.srcs = new int[this.edgeCount];
+		this.dests = new int[this.edgeCount];
+		for(int id = 0; id < this.edgeCount; id++) {
+			this.srcs[id] = edges[id].getSrc();
+			this.dests[id] = edges[id].getDest();
+		}
+		this.xCoords = vertices.getxCoords();
+		this.yCoords = vertices.getyCoords();
+		this.rows = new long[this.edgeCount][];
+	}
+
+	//returns true if the first edge crosses the second one
+	public boolean isCrossing(Edge e1, Edge e2) {
+		return isCrossing(e1.getId(), e2.getId());
+	}
+
+	//returns true if the edge with id1 crosses the edge with id2
+	public boolean isCrossing(int id1, int id2) {
+		return (computeRow(id1)[id2 >>> 6] & (1L << id2)) != 0;
+	}
+
+	//returns all edges in the argument edgeList that do not cross the edge
+	public LinkedList<Edge> nonCrossingEdges(Edge edge, LinkedList<Edge> edgeList) {
+		LinkedList<Edge> nonConflicting = new LinkedList<Edge>();
+		for(Edge other : edgeList) {
+			if (!isCrossing(edge, other)) {
+				nonConflicting.add(other);
+			}
+		}
+		return nonConflicting;
+	}
+
+	//returns all edges in the argument edgeList that cross the edge
+	public LinkedList<Edge> crossingEdges(Edge edge, LinkedList<Edge> edgeList) {
+		LinkedList<Edge> conflicting = new LinkedList<Edge>();
+		for(Edge other : edgeList) {
+			if (isCrossing(edge, other)) {
+				conflicting.add(other);
+			}
+		}
+		return conflicting;
+	}
+
+	//stores the intersection of the argument edge set with all edges crossing the edge with the given id in result
+	//(edge sets are bitsets over edge ids with at least getWords() entries)
+	public void crossingEdges(int id, long[] edgeSet, long[] result) {
+		long[] row = computeRow(id);
+		for(int w = 0; w < this.words; w++) {
+			result[w] = row[w] & edgeSet[w];
+		}
+	}
+
+	//computes the rows of all argument edges up front, afterwards queries on them don't modify the matrix
+	//and it can be read by several threads at once
+	public void computeRows(Iterable<Edge> edges) {
+		for(Edge edge : edges) {
+			computeRow(edge.getId());
+		}
+	}
+
+	//tests the edge with the given id against all other edges, if this has not happened yet, and returns its row
+	private long[] computeRow(int id) {
+		if(this.rows[id] != null) {
+			return this.rows[id];
+		}
+		long[] row = new long[this.words];
+		int ax = this.xCoords[this.srcs[id]];
+		int ay = this.yCoords[this.srcs[id]];
+		int bx = this.xCoords[this.dests[id]];
+		int by = this.yCoords[this.dests[id]];
+		boolean crossing;
+		for(int other = 0; other < this.edgeCount; other++) {
+			//crossing is symmetric, so rows computed before already contain the answer
+			if(this.rows[other] != null) {
+				crossing = (this.rows[other][id >>> 6] & (1L << id)) != 0;
+			}
+			else {
+				crossing = LineSegment.isCrossing(ax, ay, bx, by, 
+						this.xCoords[this.srcs[other]], this.yCoords[this.srcs[other]], this.xCoords[this.dests[other]], this.yCoords[this.dests[other]]);
+			}
+			if(crossing) {
+				row[other >>> 6] |= (1L << other);
+			}
+		}
+		this.rows[id] = row;
+		return row;
+	}
+
+	public int getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	public int getWords() {
+		return this.words;
+	}
+
+}
@@ -3,7 +3,6 @@ package drawings;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
-import java.util.Collections;
 import java.util.LinkedList;
 
 import javax.swing.JComponent;
@@ -63,26 +62,14 @@ public class DebugGraphDrawing extends JComponent {
 	}
 	
 	
-	//adds all edges of a complete graph on the pointset that do not violate the point criterion
+	//adds all edges of a complete graph on the pointset that do not violate the point criterion (sorted by weight)
 	public void completeGraphSetminusPK() {
-		edgeList = new LinkedList<Edge>();
-		LineSegment line;
-		Edge edge;
-		for(int i = 0; i < this.size - 1; i++) {
-			for(int j = i+1; j < this.size; j++) {
-				line = new LineSegment(vertices.getPoint(i), vertices.getPoint(j));
-				edge = new Edge(i, j, line);
-				if(!this.vertices.violatesPointCriterion(edge.getPosition())) {
-					edgeList.add(edge);
-				}
-			}
-		}
+		edgeList = new LinkedList<Edge>(this.vertices.getEdgePool().getEdgesSetminusPK());
 	}
 	
 	//implements the branch-and-bound algorithm for planar MSTs on the pointset and visualizes its progress
 	public void branchAndBound() {
 		this.completeGraphSetminusPK();
-		Collections.sort(this.edgeList);
 		LinkedList<Edge> currentCandidates = new LinkedList<Edge>();
 
 		for(Edge edge : this.edgeList) {
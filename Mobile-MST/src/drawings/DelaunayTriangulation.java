@@ -0,0 +1,414 @@
+package drawings;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public class DelaunayTriangulation {
+
+	//vertex closing the triangulation around its convex hull, it lies outside of every hull edge
+	private static final int INFINITE = -1;
+
+	//coordinate differences below this bound keep the in-circle determinant within a long
+	private static final long EXACT_LONG_BOUND = 1 << 14;
+
+	private int[] xCoords;
+	private int[] yCoords;
+	private int count;
+
+	//vertices of every triangle in counterclockwise order, triangles containing the infinite vertex are ghosts beyond a hull edge
+	private int[] vertices;
+
+	//neighbors[3*t+i] is the triangle across the edge opposite to vertices[3*t+i]
+	private int[] neighbors;
+	private boolean[] removed;
+	private int triangles;
+
+	//insertion that last tested a triangle, and whether the triangle's circumcircle contains the inserted point
+	private int[] testedBy;
+	private boolean[] conflicting;
+
+	//new triangles of an insertion by their first and second vertex (the infinite vertex has index count)
+	private int[] byFirst;
+	private int[] bySecond;
+
+	//real triangle the point location of the next insertion starts at
+	private int last;
+
+	//edges of the triangulation, and zero length edges between points with equal coordinates
+	private int[] edgeSrcs;
+	private int[] edgeDests;
+	private int edgeCount;
+
+	//triangulates the first count points with the argument coordinates
+	public DelaunayTriangulation(int[] xCoords, int[] yCoords, int count) {
+		this.xCoords = xCoords;
+		this.yCoords = yCoords;
+		this.count = count;
+		this.edgeSrcs = new int[Math.max(3 * count, 4)];
+		this.edgeDests = new int[this.edgeSrcs.length];
+		this.edgeCount = 0;
+
+		Integer[] sorted = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			sorted[i] = i;
+		}
+		Arrays.sort(sorted, (a, b) -> xCoords[a] != xCoords[b] ? Integer.compare(xCoords[a], xCoords[b]) : Integer.compare(yCoords[a], yCoords[b]));
+
+		//points with equal coordinates are triangulated once and joined to it by edges of length 0
+		int[] unique = new int[count];
+		int uniqueCount = 0;
+		for (int s = 0; s < count; s++) {
+			int i = sorted[s];
+			if (uniqueCount > 0 && xCoords[unique[uniqueCount - 1]] == xCoords[i] && yCoords[unique[uniqueCount - 1]] == yCoords[i]) {
+				addEdge(unique[uniqueCount - 1], i);
+			}
+			else {
+				unique[uniqueCount] = i;
+				uniqueCount++;
+			}
+		}
+
+		//the first triangle needs three points that aren't collinear
+		int third = -1;
+		for (int s = 2; s < uniqueCount && third < 0; s++) {
+			if (orientation(unique[0], unique[1], unique[s]) != 0) {
+				third = s;
+			}
+		}
+		if (third < 0) {
+			//collinear points, in lexicographic order neighbours are joined
+			for (int s = 1; s < uniqueCount; s++) {
+				addEdge(unique[s - 1], unique[s]);
+			}
+			return;
+		}
+
+		int capacity = 8 * uniqueCount + 16;
+		this.vertices = new int[3 * capacity];
+		this.neighbors = new int[3 * capacity];
+		this.removed = new boolean[capacity];
+		this.testedBy = new int[capacity];
+		this.conflicting = new boolean[capacity];
+		this.byFirst = new int[count + 1];
+		this.bySecond = new int[count + 1];
+		Arrays.fill(this.testedBy, -1);
+		this.triangles = 0;
+
+		start(unique[0], unique[1], unique[third]);
+
+		//inserting points along a space filling curve keeps the point location walks short
+		int[] remaining = new int[uniqueCount - 3];
+		int r = 0;
+		for (int s = 2; s < uniqueCount; s++) {
+			if (s != third) {
+				remaining[r] = unique[s];
+				r++;
+			}
+		}
+		sortAlongHilbertCurve(remaining);
+		for (int insertion = 0; insertion < remaining.length; insertion++) {
+			insert(remaining[insertion], insertion);
+		}
+
+		collectEdges();
+	}
+
+	//creates the first triangle and the three ghosts beyond its edges
+	private void start(int a, int b, int c) {
+		if (orientation(a, b, c) < 0) {
+			int temp = b;
+			b = c;
+			c = temp;
+		}
+		int t = newTriangle(a, b, c);
+		int ghostA = newTriangle(c, b, INFINITE);
+		int ghostB = newTriangle(a, c, INFINITE);
+		int ghostC = newTriangle(b, a, INFINITE);
+		setNeighbors(t, ghostA, ghostB, ghostC);
+		setNeighbors(ghostA, ghostC, ghostB, t);
+		setNeighbors(ghostB, ghostA, ghostC, t);
+		setNeighbors(ghostC, ghostB, ghostA, t);
+		this.last = t;
+	}
+
+	//inserts the point p by replacing all triangles whose circumcircle contains it with a star of triangles around p
+	private void insert(int p, int insertion) {
+		int start = locate(p);
+
+		//collect the conflicting triangles and the edges bounding them
+		int[] stack = new int[16];
+		int stackSize = 0;
+		int[] boundary = new int[16];
+		int boundarySize = 0;
+		test(start, p, insertion);
+		stack[stackSize++] = start;
+		int[] cavity = new int[16];
+		int cavitySize = 0;
+		while (stackSize > 0) {
+			int t = stack[--stackSize];
+			if (cavitySize == cavity.length) {
+				cavity = Arrays.copyOf(cavity, 2 * cavity.length);
+			}
+			cavity[cavitySize++] = t;
+			for (int i = 0; i < 3; i++) {
+				int neighbor = this.neighbors[3 * t + i];
+				boolean tested = this.testedBy[neighbor] == insertion;
+				if (!tested) {
+					test(neighbor, p, insertion);
+				}
+				if (this.conflicting[neighbor]) {
+					if (!tested) {
+						if (stackSize == stack.length) {
+							stack = Arrays.copyOf(stack, 2 * stack.length);
+						}
+						stack[stackSize++] = neighbor;
+					}
+				}
+				else {
+					if (boundarySize == boundary.length) {
+						boundary = Arrays.copyOf(boundary, 2 * boundary.length);
+					}
+					boundary[boundarySize++] = 3 * t + i;
+				}
+			}
+		}
+
+		//one new triangle per boundary edge, linked to the triangle outside of the cavity
+		int[] created = new int[boundarySize];
+		for (int e = 0; e < boundarySize; e++) {
+			int t = boundary[e] / 3;
+			int i = boundary[e] % 3;
+			int x = this.vertices[3 * t + (i + 1) % 3];
+			int y = this.vertices[3 * t + (i + 2) % 3];
+			int outside = this.neighbors[boundary[e]];
+			int triangle = newTriangle(x, y, p);
+			created[e] = triangle;
+			this.neighbors[3 * triangle + 2] = outside;
+			for (int j = 0; j < 3; j++) {
+				if (this.neighbors[3 * outside + j] == t) {
+					this.neighbors[3 * outside + j] = triangle;
+				}
+			}
+			this.byFirst[slot(x)] = triangle;
+			this.bySecond[slot(y)] = triangle;
+			if (x != INFINITE && y != INFINITE) {
+				this.last = triangle;
+			}
+		}
+		//neighbouring new triangles share an edge from p to a vertex of the boundary
+		for (int triangle : created) {
+			this.neighbors[3 * triangle] = this.byFirst[slot(this.vertices[3 * triangle + 1])];
+			this.neighbors[3 * triangle + 1] = this.bySecond[slot(this.vertices[3 * triangle])];
+		}
+		for (int c = 0; c < cavitySize; c++) {
+			this.removed[cavity[c]] = true;
+		}
+	}
+
+	//returns a triangle whose circumcircle contains p, walking from the last created real triangle towards p
+	private int locate(int p) {
+		int t = this.last;
+		int step = 0;
+		while (true) {
+			boolean moved = false;
+			//starting with a different edge every step prevents walking in circles
+			for (int e = 0; e < 3 && !moved; e++) {
+				int i = (e + step) % 3;
+				int u = this.vertices[3 * t + (i + 1) % 3];
+				int w = this.vertices[3 * t + (i + 2) % 3];
+				if (orientation(u, w, p) < 0) {
+					t = this.neighbors[3 * t + i];
+					moved = true;
+				}
+			}
+			if (!moved || isGhost(t)) {
+				//p lies in the real triangle, or beyond the hull edge of the ghost
+				return t;
+			}
+			step++;
+		}
+	}
+
+	//decides whether the circumcircle of the triangle contains p, a ghost contains the half plane beyond its hull edge
+	private void test(int t, int p, int insertion) {
+		this.testedBy[t] = insertion;
+		int a = this.vertices[3 * t];
+		int b = this.vertices[3 * t + 1];
+		int c = this.vertices[3 * t + 2];
+		if (a == INFINITE) {
+			this.conflicting[t] = beyondHullEdge(b, c, p);
+		}
+		else if (b == INFINITE) {
+			this.conflicting[t] = beyondHullEdge(c, a, p);
+		}
+		else if (c == INFINITE) {
+			this.conflicting[t] = beyondHullEdge(a, b, p);
+		}
+		else {
+			this.conflicting[t] = inCircle(a, b, c, p) > 0;
+		}
+	}
+
+	//returns true if p lies left of the hull edge from u to w (outside of the hull) or inside of the edge itself
+	private boolean beyondHullEdge(int u, int w, int p) {
+		long orientation = orientation(u, w, p);
+		if (orientation != 0) {
+			return orientation > 0;
+		}
+		long dot = (long) (this.xCoords[p] - this.xCoords[u]) * (this.xCoords[w] - this.xCoords[u])
+				+ (long) (this.yCoords[p] - this.yCoords[u]) * (this.yCoords[w] - this.yCoords[u]);
+		long length = (long) (this.xCoords[w] - this.xCoords[u]) * (this.xCoords[w] - this.xCoords[u])
+				+ (long) (this.yCoords[w] - this.yCoords[u]) * (this.yCoords[w] - this.yCoords[u]);
+		return dot > 0 && dot < length;
+	}
+
+	private long orientation(int i, int j, int k) {
+		return MovingPoint2D.orientation(this.xCoords[i], this.yCoords[i], this.xCoords[j], this.yCoords[j], this.xCoords[k], this.yCoords[k]);
+	}
+
+	//returns a positive value if p lies inside the circumcircle of the counterclockwise triangle (a,b,c), 0 if on it
+	private long inCircle(int a, int b, int c, int p) {
+		long adx = this.xCoords[a] - this.xCoords[p];
+		long ady = this.yCoords[a] - this.yCoords[p];
+		long bdx = this.xCoords[b] - this.xCoords[p];
+		long bdy = this.yCoords[b] - this.yCoords[p];
+		long cdx = this.xCoords[c] - this.xCoords[p];
+		long cdy = this.yCoords[c] - this.yCoords[p];
+		long bound = Math.max(Math.max(Math.max(Math.abs(adx), Math.abs(ady)), Math.max(Math.abs(bdx), Math.abs(bdy))), Math.max(Math.abs(cdx), Math.abs(cdy)));
+		if (bound < EXACT_LONG_BOUND) {
+			return (adx*adx + ady*ady) * (bdx*cdy - cdx*bdy)
+					+ (bdx*bdx + bdy*bdy) * (cdx*ady - adx*cdy)
+					+ (cdx*cdx + cdy*cdy) * (adx*bdy - bdx*ady);
+		}
+		//far apart points overflow a long
+		BigInteger alift = BigInteger.valueOf(adx*adx).add(BigInteger.valueOf(ady*ady));
+		BigInteger blift = BigInteger.valueOf(bdx*bdx).add(BigInteger.valueOf(bdy*bdy));
+		BigInteger clift = BigInteger.valueOf(cdx*cdx).add(BigInteger.valueOf(cdy*cdy));
+		BigInteger determinant = alift.multiply(BigInteger.valueOf(bdx*cdy - cdx*bdy))
+				.add(blift.multiply(BigInteger.valueOf(cdx*ady - adx*cdy)))
+				.add(clift.multiply(BigInteger.valueOf(adx*bdy - bdx*ady)));
+		return determinant.signum();
+	}
+
+	//sorts the points by their position along a Hilbert curve over their bounding box
+	private void sortAlongHilbertCurve(int[] points) {
+		int minX = Integer.MAX_VALUE;
+		int minY = Integer.MAX_VALUE;
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		for (int p : points) {
+			minX = Math.min(minX, this.xCoords[p]);
+			minY = Math.min(minY, this.yCoords[p]);
+			maxX = Math.max(maxX, this.xCoords[p]);
+			maxY = Math.max(maxY, this.yCoords[p]);
+		}
+		long spanX = (long) maxX - minX + 1;
+		long spanY = (long) maxY - minY + 1;
+		long[] keys = new long[points.length];
+		for (int s = 0; s < points.length; s++) {
+			int x = (int) (((long) this.xCoords[points[s]] - minX) * 65536 / spanX);
+			int y = (int) (((long) this.yCoords[points[s]] - minY) * 65536 / spanY);
+			//curve index in the upper bits, point in the lower ones
+			keys[s] = (hilbertIndex(x, y) << 31) | points[s];
+		}
+		Arrays.sort(keys);
+		for (int s = 0; s < points.length; s++) {
+			points[s] = (int) (keys[s] & Integer.MAX_VALUE);
+		}
+	}
+
+	//returns the index of the cell (x,y) along a Hilbert curve through a 65536 x 65536 grid
+	private static long hilbertIndex(int x, int y) {
+		long index = 0;
+		for (int s = 1 << 15; s > 0; s >>= 1) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			index += (long) s * s * ((3 * rx) ^ ry);
+			//rotate the quadrant
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int temp = x;
+				x = y;
+				y = temp;
+			}
+		}
+		return index;
+	}
+
+	//stores every edge of a real triangle once, edges inside the hull belong to two triangles
+	private void collectEdges() {
+		for (int t = 0; t < this.triangles; t++) {
+			if (this.removed[t] || isGhost(t)) {
+				continue;
+			}
+			for (int i = 0; i < 3; i++) {
+				int u = this.vertices[3 * t + (i + 1) % 3];
+				int w = this.vertices[3 * t + (i + 2) % 3];
+				if (u < w || isGhost(this.neighbors[3 * t + i])) {
+					addEdge(u, w);
+				}
+			}
+		}
+	}
+
+	private void addEdge(int u, int w) {
+		if (this.edgeCount == this.edgeSrcs.length) {
+			this.edgeSrcs = Arrays.copyOf(this.edgeSrcs, 2 * this.edgeCount);
+			this.edgeDests = Arrays.copyOf(this.edgeDests, 2 * this.edgeCount);
+		}
+		this.edgeSrcs[this.edgeCount] = Math.min(u, w);
+		this.edgeDests[this.edgeCount] = Math.max(u, w);
+		this.edgeCount++;
+	}
+
+	private int newTriangle(int a, int b, int c) {
+		if (this.triangles == this.removed.length) {
+			int capacity = 2 * this.triangles;
+			this.vertices = Arrays.copyOf(this.vertices, 3 * capacity);
+			this.neighbors = Arrays.copyOf(this.neighbors, 3 * capacity);
+			this.removed = Arrays.copyOf(this.removed, capacity);
+			this.conflicting = Arrays.copyOf(this.conflicting, capacity);
+			int old = this.testedBy.length;
+			this.testedBy = Arrays.copyOf(this.testedBy, capacity);
+			Arrays.fill(this.testedBy, old, capacity, -1);
+		}
+		int t = this.triangles;
+		this.vertices[3 * t] = a;
+		this.vertices[3 * t + 1] = b;
+		this.vertices[3 * t + 2] = c;
+		this.triangles++;
+		return t;
+	}
+
+	private void setNeighbors(int t, int n0, int n1, int n2) {
+		this.neighbors[3 * t] = n0;
+		this.neighbors[3 * t + 1] = n1;
+		this.neighbors[3 * t + 2] = n2;
+	}
+
+	private boolean isGhost(int t) {
+		return this.vertices[3 * t] == INFINITE || this.vertices[3 * t + 1] == INFINITE || this.vertices[3 * t + 2] == INFINITE;
+	}
+
+	//index of a vertex in byFirst and bySecond
+	private int slot(int vertex) {
+		return vertex == INFINITE ? this.count : vertex;
+	}
+
+	public int getEdgeCount() {
+		return this.edgeCount;
+	}
+
+	//endpoints of the i-th edge, the source is the smaller point index
+	public int getSrc(int i) {
+		return this.edgeSrcs[i];
+	}
+
+	public int getDest(int i) {
+		return this.edgeDests[i];
+	}
+
+}
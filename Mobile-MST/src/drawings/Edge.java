@@ -6,6 +6,8 @@ public class Edge implements Comparable<Edge>{
 
 	private int src;
 	private int dest;
+	//compact id of the edge within its pointset (position in the sorted EdgePool), -1 if unassigned
+	private int id = -1;
 	private LineSegment position;
 	private double weight;
 	private int comparisons;
@@ -37,6 +39,7 @@ public class Edge implements Comparable<Edge>{
 	public Edge(Edge another) {
 		this.src = another.getSrc();
 		this.dest = another.getDest();
+		this.id = another.getId();
 		this.position = new LineSegment(another.getPosition());
 		this.weight = this.position.getStartingLength();
 	}
@@ -102,6 +105,14 @@ public class Edge implements Comparable<Edge>{
 		this.dest = dest;
 	}
 
+	public int getId() {
+		return id;
+	}
+
+	public void setId(int id) {
+		this.id = id;
+	}
+
 	public LineSegment getPosition() {
 		return position;
 	}
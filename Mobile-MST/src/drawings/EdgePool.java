@@ -0,0 +1,134 @@
+package drawings;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import util.Profiler;
+import util.Profiler.Phase;
+
+public class EdgePool {
+
+	private int size;
+
+	//all edges of the complete graph on the pointset, sorted by weight
+	private Edge[] edges;
+
+	//edges that do not violate the point criterion, sorted by weight
+	private Edge[] edgesSetminusPK;
+
+	//number of 64 bit words of a bitset over all edge ids
+	private int words;
+
+	//bitset of the ids of all edges that do not violate the point criterion
+	private long[] setminusPKBits;
+
+	//read-only views handed out to the algorithms
+	private List<Edge> edgeView;
+	private List<Edge> edgeSetminusPKView;
+
+	//crossings between the edges, only created once a planar algorithm asks for them
+	private CrossingMatrix crossingMatrix;
+
+	private MovingPointSet2D vertices;
+
+	//builds the sorted candidate edges of the pointset, which must not change while the pool is in use
+	public EdgePool(MovingPointSet2D vertices) {
+		this.size = vertices.getsize();
+		this.vertices = vertices;
+		long edgeCount = (long) this.size * (this.size - 1) / 2;
+		if(edgeCount > Integer.MAX_VALUE - 64) {
+			throw new IllegalArgumentException("A pointset of size " + this.size + " has too many edges (" + edgeCount + ") for an edge pool");
+		}
+		long start = Profiler.start();
+		this.edges = new Edge[(int) edgeCount];
+		int counter = 0;
+		for(int i = 0; i < this.size - 1; i++) {
+			for(int j = i+1; j < this.size; j++) {
+				this.edges[counter] = new Edge(i, j, new LineSegment(vertices.getPoint(i), vertices.getPoint(j)));
+				//remember the position in the complete graph until the edges are sorted
+				this.edges[counter].setId(counter);
+				counter++;
+			}
+		}
+
+		/*
+		// Uncomment to use swept area instead of initial length as weight
+		for(Edge edge : edges) {
+			edge.areaAsWeight();
+		}
+		*/
+		Profiler.stop(Phase.EDGE_GENERATION, this.size, start);
+
+		start = Profiler.start();
+		//stable sort, edges of equal weight stay in the order of the complete graph
+		Arrays.sort(this.edges);
+		Profiler.stop(Phase.SORT, this.size, start);
+
+		start = Profiler.start();
+		boolean[] violatesPK = new boolean[this.edges.length];
+		int candidates = 0;
+		for(Edge edge : this.edges) {
+			violatesPK[edge.getId()] = vertices.violatesPointCriterion(edge.getSrc(), edge.getDest());
+			if(!violatesPK[edge.getId()]) {
+				candidates++;
+			}
+		}
+		this.edgesSetminusPK = new Edge[candidates];
+		this.words = (this.edges.length + 63) >>> 6;
+		this.setminusPKBits = new long[this.words];
+		counter = 0;
+		//edge ids are the positions in the sorted pool from here on
+		for(int rank = 0; rank < this.edges.length; rank++) {
+			if(!violatesPK[this.edges[rank].getId()]) {
+				this.edgesSetminusPK[counter] = this.edges[rank];
+				this.setminusPKBits[rank >>> 6] |= (1L << rank);
+				counter++;
+			}
+			this.edges[rank].setId(rank);
+		}
+		Profiler.stop(Phase.PK_FILTER, this.size, start);
+
+		this.edgeView = Collections.unmodifiableList(Arrays.asList(this.edges));
+		this.edgeSetminusPKView = Collections.unmodifiableList(Arrays.asList(this.edgesSetminusPK));
+	}
+
+	//returns all edges of the complete graph on the pointset, sorted by weight
+	public List<Edge> getEdges() {
+		return this.edgeView;
+	}
+
+	//returns all edges that do not violate the point criterion, sorted by weight
+	public List<Edge> getEdgesSetminusPK() {
+		return this.edgeSetminusPKView;
+	}
+
+	//returns the edge with the given id
+	public Edge getEdge(int id) {
+		return this.edges[id];
+	}
+
+	//returns the crossings between the edges of this pool
+	public CrossingMatrix getCrossingMatrix() {
+		if(this.crossingMatrix == null) {
+			long start = Profiler.start();
+			this.crossingMatrix = new CrossingMatrix(this.vertices, this.edges);
+			Profiler.stop(Phase.CROSSING_MATRIX, this.size, start);
+		}
+		return this.crossingMatrix;
+	}
+
+	//returns the bitset of the ids of all edges that do not violate the point criterion, which must not be modified
+	public long[] getSetminusPKBits() {
+		return this.setminusPKBits;
+	}
+
+	public int getEdgeCount() {
+		return this.edges.length;
+	}
+
+	public int getWords() {
+		return this.words;
+	}
+
+}
@@ -4,11 +4,18 @@ import java.awt.Color;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import javax.swing.JComponent;
 
+import util.Profiler;
+import util.Profiler.Phase;
+import util.SolverProgress;
+
 public class GraphDrawing extends JComponent{
 	
 	private int size;
@@ -26,6 +33,26 @@ public class GraphDrawing extends JComponent{
 	private int edgesVisitedBranchAndBound;
 	private int comparisonsCrossingCriterion;
 	
+	//should branch-and-bound prune with the weight of a minimum spanning forest completing the current tree (ignoring crossings)?
+	private boolean relaxationBound = false;
+	
+	//should branch-and-bound start with the tree of movingKruskal as incumbent?
+	private boolean warmStart = true;
+	
+	//how many searched subproblems the exact algorithms memoize, 0 disables memoization
+	private int transpositionTableSize = 0;
+	
+	//should kruskal only consider the edges of the Delaunay triangulation instead of the complete graph?
+	private boolean delaunayKruskal = false;
+	
+	//System.nanoTime() at which the exact algorithms give up, only if hasDeadline
+	private boolean hasDeadline = false;
+	private long deadline;
+	private boolean timedOut = false;
+	
+	//trees of the last run of kineticTree over the movement interval
+	private KineticTree kineticTree;
+	
 	public GraphDrawing() {
 		this.edgeList = new LinkedList<Edge>();
 	}
@@ -88,72 +115,58 @@ public class GraphDrawing extends JComponent{
 	
 	//adds all edges of a complete graph on the pointset
 	public void completeGraph() {
-		edgeList = new LinkedList<Edge>();
-		LineSegment line;
-		for(int i = 0; i < this.size - 1; i++) {
-			for(int j = i+1; j < this.size; j++) {
-				adjList[i].add(j);
-				adjList[j].add(i);
-				line = new LineSegment(vertices.getPoint(i), vertices.getPoint(j));
-				edgeList.add(new Edge(i, j, line));
-			}
-		}
+		edgeList = new LinkedList<Edge>(this.vertices.getEdgePool().getEdges());
+		addToAdjList(edgeList);
 	}
 	
 	//adds all edges of a complete graph on the pointset that do not violate the point criterion
 	public void completeGraphSetminusPK() {
-		edgeList = new LinkedList<Edge>();
-		LineSegment line;
-		Edge edge;
-		for(int i = 0; i < this.size - 1; i++) {
-			for(int j = i+1; j < this.size; j++) {
-				line = new LineSegment(vertices.getPoint(i), vertices.getPoint(j));
-				edge = new Edge(i, j, line);
-				if(!this.vertices.violatesPointCriterion(edge.getPosition())) {
-					adjList[i].add(j);
-					adjList[j].add(i);
-					edgeList.add(edge);
-				}
-			}
+		edgeList = new LinkedList<Edge>(this.vertices.getEdgePool().getEdgesSetminusPK());
+		addToAdjList(edgeList);
+	}
+	
+	//returns the edges of the Delaunay triangulation of the initial positions sorted by weight,
+	//they contain a Euclidean MST and there are only linearly many of them
+	private List<Edge> delaunayEdges() {
+		long start = Profiler.start();
+		DelaunayTriangulation triangulation = new DelaunayTriangulation(this.vertices.getxCoords(), this.vertices.getyCoords(), this.size);
+		Edge[] edges = new Edge[triangulation.getEdgeCount()];
+		for(int i = 0; i < edges.length; i++) {
+			int src = triangulation.getSrc(i);
+			int dest = triangulation.getDest(i);
+			edges[i] = new Edge(src, dest, new LineSegment(this.vertices.getPoint(src), this.vertices.getPoint(dest)));
+		}
+		Arrays.sort(edges);
+		Profiler.stop(Phase.DELAUNAY, this.size, start);
+		return Arrays.asList(edges);
+	}
+	
+	//adds the endpoints of all argument edges to each others neighbour entries
+	private void addToAdjList(List<Edge> edges) {
+		for(Edge edge : edges) {
+			adjList[edge.getSrc()].add(edge.getDest());
+			adjList[edge.getDest()].add(edge.getSrc());
 		}
 	}
 	
-
 	//Kruskal's algorithm on the initial position of the moving pointset
 	public int kruskal() {
 		
-		this.completeGraph();
-
-		/*
-		// Uncomment to use swept area instead of initial length as weight
-		for(Edge edge : edgeList) {
-			edge.areaAsWeight();
-		}
-		*/
+		//edges of the complete graph (or of the Delaunay triangulation) sorted by weight
+		List<Edge> candidates = this.delaunayKruskal ? delaunayEdges() : this.vertices.getEdgePool().getEdges();
 		
+		long start = Profiler.start();
 		this.edgesVisitedGreedy = 0;		
-		//union-find
-		int[] parents = new int[this.size];
-		for (int i = 0; i < parents.length; i++) {
-			parents[i] = -1;
-		}
+		UnionFind unionFind = new UnionFind(this.size);
 		//output
 		LinkedList<Edge> MST = new LinkedList<Edge>();
 		
-		
-		Collections.sort(this.edgeList);
-		
 		boolean success = false;
-		while(!edgeList.isEmpty()) {
-			Edge nextEdge = edgeList.removeFirst();
+		for(Edge nextEdge : candidates) {
 			this.edgesVisitedGreedy += 1;
 			
-			int v = getRepresentative(parents, nextEdge.getSrc());
-			int w = getRepresentative(parents, nextEdge.getDest());
-			
-			if(v != w) {
+			if(unionFind.union(nextEdge.getSrc(), nextEdge.getDest())) {
 				MST.add(nextEdge);
-				union(parents, v, w);
 			}
 			if (MST.size() >= this.size - 1) {
 				success = true;
@@ -178,43 +191,28 @@ public class GraphDrawing extends JComponent{
 			adjList[src].add(dest);
 			adjList[dest].add(src);
 		}
+		Profiler.stop(Phase.KRUSKAL, this.size, start);
 		return this.edgesVisitedGreedy;
 	}
 	
 	//produces a crossing-stable MST on the moving pointset
 	public int crossingStableMST() {
 		
-		this.completeGraphSetminusPK();
-
-		/*
-		// Uncomment to use swept area instead of initial length as weight
-		for(Edge edge : edgeList) {
-			edge.areaAsWeight();
-		}
-		*/
+		//edges satisfying the point criterion sorted by weight
+		List<Edge> candidates = this.vertices.getEdgePool().getEdgesSetminusPK();
 				
+		long start = Profiler.start();
 		this.edgesVisitedGreedy = 0;		
-		//union-find
-		int[] parents = new int[this.size];
-		for (int i = 0; i < parents.length; i++) {
-			parents[i] = -1;
-		}
+		UnionFind unionFind = new UnionFind(this.size);
 		//output
 		LinkedList<Edge> MST = new LinkedList<Edge>();
 		
-		Collections.sort(this.edgeList);
-		
 		boolean success = false;
-		while(!edgeList.isEmpty()) {
-			Edge nextEdge = edgeList.removeFirst();
+		for(Edge nextEdge : candidates) {
 			this.edgesVisitedGreedy += 1;
 			
-			int v = getRepresentative(parents, nextEdge.getSrc());
-			int w = getRepresentative(parents, nextEdge.getDest());
-			
-			if(v != w) {
+			if(unionFind.union(nextEdge.getSrc(), nextEdge.getDest())) {
 				MST.add(nextEdge);
-				union(parents, v, w);
 			}
 			if (MST.size() >= this.size - 1) {
 				success = true;
@@ -239,6 +237,7 @@ public class GraphDrawing extends JComponent{
 			adjList[src].add(dest);
 			adjList[dest].add(src);
 		}
+		Profiler.stop(Phase.CROSSING_STABLE, this.size, start);
 		return this.edgesVisitedGreedy;
 	}
 	
@@ -246,38 +245,26 @@ public class GraphDrawing extends JComponent{
 	//produces a cheap planar spanning tree on a moving pointset
 	public int movingKruskal() {
 		
-		this.completeGraphSetminusPK();
-
-		/*
-		// Uncomment to use swept area instead of initial length as weight
-		for(Edge edge : edgeList) {
-			edge.areaAsWeight();
-		}
-		*/
+		//edges satisfying the point criterion sorted by weight
+		List<Edge> candidates = this.vertices.getEdgePool().getEdgesSetminusPK();
 		
+		long start = Profiler.start();
 		this.edgesVisitedGreedy = 0;		
-		//union-find
-		int[] parents = new int[this.size];
-		for (int i = 0; i < parents.length; i++) {
-			parents[i] = -1;
-		}
+		UnionFind unionFind = new UnionFind(this.size);
+		//accepted edges, indexed by the cells they cover so that candidates are only compared with nearby edges
+		SegmentGrid grid = new SegmentGrid(this.vertices);
 		//output
 		LinkedList<Edge> MST = new LinkedList<Edge>();
 		
-		Collections.sort(this.edgeList);
-		
 		boolean success = false;
-		while(!edgeList.isEmpty()) {
-			Edge nextEdge = edgeList.removeFirst();
+		for(Edge nextEdge : candidates) {
 			this.edgesVisitedGreedy += 1;
 			
-			int v = getRepresentative(parents, nextEdge.getSrc());
-			int w = getRepresentative(parents, nextEdge.getDest());
-			
-			if(v != w) {
-				if(!isCrossing(nextEdge, MST)){
+			if(!unionFind.connected(nextEdge.getSrc(), nextEdge.getDest())) {
+				if(!grid.isCrossing(nextEdge)){
 					MST.add(nextEdge);
-					union(parents, v, w);
+					grid.add(nextEdge);
+					unionFind.union(nextEdge.getSrc(), nextEdge.getDest());
 				}
 			}
 			if (MST.size() >= this.size - 1) {
@@ -289,6 +276,7 @@ public class GraphDrawing extends JComponent{
 		if(!success) {
 			System.out.println("Ran out of edges");
 		}
+		this.comparisonsCrossingCriterion += grid.getComparisons();
 		
 		this.edgeList = MST;
 		this.adjList = new LinkedList[this.size];
@@ -303,311 +291,142 @@ public class GraphDrawing extends JComponent{
 			adjList[src].add(dest);
 			adjList[dest].add(src);
 		}
+		Profiler.stop(Phase.MOVING_KRUSKAL, this.size, start);
 		return this.edgesVisitedGreedy;
 	}
 	
 	//brute Forces a planar minimal spanning tree on a moving pointset
 	public int optimalSlow() {
-		this.completeGraphSetminusPK();
+		//edges satisfying the point criterion sorted by weight
+		CandidateList currentCandidates = new CandidateList(this.vertices.getEdgePool().getEdgesSetminusPK());
 		
-		/*
-		// Uncomment to use swept area instead of initial length as weight
-		for(Edge edge : edgeList) {
-			edge.areaAsWeight();
+		TreeSearch search = new TreeSearch(this.vertices, false, false);
+		search.setTranspositionTable(transpositionTable());
+		if(this.hasDeadline) {
+			search.setDeadline(this.deadline);
 		}
-		*/
-		
-		Collections.sort(this.edgeList);
-		LinkedList<Edge> currentCandidates = new LinkedList<Edge>();
-		for(Edge edge : this.edgeList) {
-			currentCandidates.add(edge);
+		long start = Profiler.start();
+		this.edgeList = search.search(new LinkedList<Edge>(), 0, currentCandidates, new long[this.vertices.getEdgePool().getWords()], Double.MAX_VALUE);
+		Profiler.stop(Phase.EXHAUSTIVE_SEARCH, this.size, start);
+		this.timedOut = search.isTimedOut();
+		if(this.timedOut) {
+			this.edgeList = new LinkedList<Edge>();
 		}
-
-		this.edgesVisitedOptimalSlow = 0;
-		this.comparisonsCrossingCriterion = 0;
 		
-		//union-find
-		int[] parents = new int[this.size];
-		for (int i = 0; i < parents.length; i++) {
-			parents[i] = -1;
-		}
-		
-		LinkedList<Edge> MST = new LinkedList<Edge>();
-		LinkedList<Edge> deletedEdges = new LinkedList<Edge>();
-		MST = optimalSlowRecursive(MST, currentCandidates, parents, deletedEdges);
-		this.edgeList = MST;
+		this.edgesVisitedOptimalSlow = search.getEdgesVisited();
+		this.comparisonsCrossingCriterion = search.getComparisonsCrossingCriterion();
 		
 		return this.edgesVisitedOptimalSlow;
 	}
 	
-	//recursive procedure of Brute Force algorithm for planar minimal spanning tree on a moving pointset
-	private LinkedList<Edge> optimalSlowRecursive(LinkedList<Edge> MST, LinkedList<Edge> currentCandidates, int[] unionFind, LinkedList<Edge> deletedEdges) {
-		if(MST.size() == this.size-1) {
-			return MST;
-		}
-		if(currentCandidates.size() <= 0) {
-			System.out.println("Ran out of edges during recursion");
-			return null;
-		}
-		
-		LinkedList<Edge> deleted = new LinkedList<Edge>();
-		deleted.addAll(deletedEdges);
-		
-		this.edgesVisitedOptimalSlow += 1;
-		
-		Edge nextEdge = currentCandidates.removeFirst();
-		
-		int v = getRepresentative(unionFind, nextEdge.getSrc());
-		int w = getRepresentative(unionFind, nextEdge.getDest());
-		
-		if(v != w) {
-			if(isCrossing(nextEdge, MST)) {
-				LinkedList<Edge> ST1 = new LinkedList<Edge>();
-				LinkedList<Edge> currentMST = new LinkedList<Edge>();
-				currentMST.addAll(MST);
-				ST1 = optimalSlowRecursive(MST, currentCandidates, unionFind, deleted);
-
-				//remove crossing edges from alternative MST containing the edge
-				LinkedList<Edge> ST2 = new LinkedList<Edge>();
-				ST2 = nextEdge.nonCrossingEdges(currentMST);
-				ST2.add(nextEdge);
-				deleted.addAll(nextEdge.crossingEdges(currentMST));
-				
-				//recalculate unionFind for alternative MST
-				int[] unionFind2 = new int[this.size];
-				for (int i = 0; i < unionFind2.length; i++) {
-					unionFind2[i] = -1;
-				}
-
-				for (Edge edge : ST2) {
-
-					v = getRepresentative(unionFind2, edge.getSrc());
-					w = getRepresentative(unionFind2, edge.getDest());
-					if(v != w) {
-						union(unionFind2, v, w);
-					}
-					else System.out.println("Something went horribly wrong");
-				}
-				
-				//recalculate viable candidate edges for alternative MST
-				LinkedList<Edge> candidates2 = new LinkedList<Edge>();
-				for(Edge edge : this.edgeList) {
-					if (!(ST2.contains(edge) || deleted.contains(edge))) {
-						//should be sorted
-						candidates2.add(edge);					
-					}
-				}
-				
-				//calculate alternative spanning tree
-				ST2 = optimalSlowRecursive(ST2, candidates2, unionFind2, deleted);
-				
-				double weightST1 = 0;
-				double weightST2 = 0;
-				
-				if(ST1 == null) {
-					weightST1 = Double.MAX_VALUE;
-				}
-				else {
-					for(Edge edge : ST1) {
-						weightST1 += edge.getWeight();
-					}
-				}
-				if(ST2 == null) {
-					weightST2 = Double.MAX_VALUE;
-				}
-				else {
-					for(Edge edge : ST2) {
-						weightST2 += edge.getWeight();
-					}
-				}
-				
-				//choose more optimal spanning tree
-				if(weightST1 <= weightST2) {
-					MST = ST1;
-				}
-				else {
-					MST = ST2;
-				}
-				return MST;
-			}
-
-			MST.add(nextEdge);
-			union(unionFind, v,w);
-			return optimalSlowRecursive(MST, currentCandidates, unionFind, deleted);
-		}
-
-		return optimalSlowRecursive(MST, currentCandidates, unionFind, deleted);
-	}
-	
 	
 	//Branch-and-bound algorithm to compute planar minimal spanning tree on the pointset
+	//(starts from the tree of movingKruskal as incumbent unless the warm start is disabled)
 	public int branchAndBound() {
-		this.completeGraphSetminusPK();
-		
-		/*
-		// Uncomment to use swept area instead of initial length as weight
-		for(Edge edge : edgeList) {
-			edge.areaAsWeight();
+		return branchAndBound(this.warmStart ? greedyIncumbent() : null);
+	}
+	
+	//Branch-and-bound algorithm only searching trees lighter than the argument incumbent, which is kept if there is none
+	//(an incumbent of null or one that doesn't span the pointset is ignored)
+	public int branchAndBound(LinkedList<Edge> incumbent) {
+		//edges satisfying the point criterion sorted by weight
+		CandidateList currentCandidates = new CandidateList(this.vertices.getEdgePool().getEdgesSetminusPK());
+		
+		incumbent = spanningIncumbent(incumbent);
+		double lowerBound = Double.MAX_VALUE;
+		if(incumbent != null) {
+			lowerBound = 0;
+			for(Edge edge : incumbent) {
+				lowerBound += edge.getWeight();
+			}
+			if(SolverProgress.isEnabled()) {
+				SolverProgress.setIncumbentWeight(lowerBound);
+			}
 		}
-		*/
 		
-		Collections.sort(this.edgeList);
-		LinkedList<Edge> currentCandidates = new LinkedList<Edge>();
-
-		for(Edge edge : this.edgeList) {
-			currentCandidates.add(edge);
+		TreeSearch search = new TreeSearch(this.vertices, true, this.relaxationBound);
+		search.setTranspositionTable(transpositionTable());
+		if(this.hasDeadline) {
+			search.setDeadline(this.deadline);
 		}
-
-		this.edgesVisitedBranchAndBound = 0;
-		
-		//union-find
-		int[] parents = new int[this.size];
-		for (int i = 0; i < parents.length; i++) {
-			parents[i] = -1;
+		long start = Profiler.start();
+		LinkedList<Edge> MST = search.search(new LinkedList<Edge>(), 0, currentCandidates, new long[this.vertices.getEdgePool().getWords()], lowerBound);
+		Profiler.stop(Phase.BRANCH_AND_BOUND, this.size, start);
+		this.timedOut = search.isTimedOut();
+		if(MST == null) {
+			MST = incumbent != null ? new LinkedList<Edge>(incumbent) : new LinkedList<Edge>();
 		}
-		
-		LinkedList<Edge> MST = new LinkedList<Edge>();
-		LinkedList<Edge> deletedEdges = new LinkedList<Edge>();
-		MST = branchAndBoundRecursive(MST, currentCandidates, parents, deletedEdges, Double.MAX_VALUE);
 		this.edgeList = MST;
 		
+		this.edgesVisitedBranchAndBound = search.getEdgesVisited();
+		this.comparisonsCrossingCriterion = search.getComparisonsCrossingCriterion();
+		
 		return this.edgesVisitedBranchAndBound;
 	}
 	
 	
-	private LinkedList<Edge> branchAndBoundRecursive(LinkedList<Edge> MST, LinkedList<Edge> currentCandidates, int[] unionFind, LinkedList<Edge> deletedEdges , double lowerBound) {
-		//if ST is complete
-		if(MST.size() == this.size-1) {
-			return MST;
-		}
-		
-		// if not enough edges left
-		if(currentCandidates.size() < (this.size-1)-MST.size()) {
-			//System.out.println("Ran out of edges during recursion");
-			return null;
-		}
-		
-		//prune recursions that can't beat the current optimum
-		double bestCaseCost = 0;
-		for (Edge edge : MST) {
-			bestCaseCost += edge.getWeight();
+	//Branch-and-bound algorithm searching subtrees in parallel on the argument pool, all subtrees share the best spanning tree found so far
+	public int parallelBranchAndBound(ForkJoinPool forkJoinPool) {
+		return parallelBranchAndBound(forkJoinPool, this.warmStart ? greedyIncumbent() : null);
+	}
+	
+	public int parallelBranchAndBound() {
+		return parallelBranchAndBound(ForkJoinPool.commonPool());
+	}
+	
+	//parallel Branch-and-bound algorithm only searching trees lighter than the argument incumbent, which is kept if there is none
+	public int parallelBranchAndBound(ForkJoinPool forkJoinPool, LinkedList<Edge> incumbent) {
+		ParallelBranchAndBound solver = new ParallelBranchAndBound(this.vertices, this.relaxationBound);
+		if(this.hasDeadline) {
+			solver.setDeadline(this.deadline);
 		}
-		
-		for (int i = 0; i < (this.size-1)-MST.size(); i++) {
-			bestCaseCost += currentCandidates.get(i).getWeight();
+		long start = Profiler.start();
+		this.edgeList = solver.solve(forkJoinPool, spanningIncumbent(incumbent));
+		Profiler.stop(Phase.BRANCH_AND_BOUND, this.size, start);
+		this.timedOut = solver.isTimedOut();
+		if(this.edgeList == null) {
+			this.edgeList = new LinkedList<Edge>();
 		}
+		this.edgesVisitedBranchAndBound = solver.getEdgesVisited();
+		this.comparisonsCrossingCriterion = solver.getComparisonsCrossingCriterion();
 		
-		if(bestCaseCost >= lowerBound) {
+		return this.edgesVisitedBranchAndBound;
+	}
+	
+	//returns a new transposition table of the configured size for the pointset, null if memoization is disabled
+	private TranspositionTable transpositionTable() {
+		if(this.transpositionTableSize <= 0) {
 			return null;
 		}
-		
-		LinkedList<Edge> deleted = new LinkedList<Edge>();
-		deleted.addAll(deletedEdges);
-		
-		this.edgesVisitedBranchAndBound += 1;
-		
-		Edge nextEdge = currentCandidates.removeFirst();
-		
-		int v = getRepresentative(unionFind, nextEdge.getSrc());
-		int w = getRepresentative(unionFind, nextEdge.getDest());
-		
-		if(v != w) {
-			if(isCrossing(nextEdge, MST)) {
-				LinkedList<Edge> ST1 = new LinkedList<Edge>();
-				LinkedList<Edge> currentMST = new LinkedList<Edge>();
-				currentMST.addAll(MST);
-				ST1 = branchAndBoundRecursive(MST, currentCandidates, unionFind, deleted, lowerBound);
-				
-				double weightST1 = 0;
-				if(ST1 == null) {
-					weightST1 = Double.MAX_VALUE;
-				}
-				else {					
-					for(Edge edge : ST1) {
-						weightST1 += edge.getWeight();
-					}
-				}
-				
-				lowerBound = Math.min(lowerBound, weightST1);
-				
-				//calculate alternative spanning tree
-
-				//remove crossing edges from alternative MST containing the edge
-				LinkedList<Edge> ST2 = new LinkedList<Edge>();
-				ST2 = nextEdge.nonCrossingEdges(currentMST);
-				ST2.add(nextEdge);
-				deleted.addAll(nextEdge.crossingEdges(currentMST));
-				
-				//recalculate unionFind for alternative MST
-				int[] unionFind2 = new int[this.size];
-				for (int i = 0; i < unionFind2.length; i++) {
-					unionFind2[i] = -1;
-				}
-
-				for (Edge edge : ST2) {
-					v = getRepresentative(unionFind2, edge.getSrc());
-					w = getRepresentative(unionFind2, edge.getDest());
-					if(v != w) {
-						union(unionFind2, v, w);
-					}
-					else System.out.println("Something went horribly wrong");
-				}
-				
-				//recalculate viable candidate edges for alternative MST
-				LinkedList<Edge> candidates2 = new LinkedList<Edge>();
-				for(Edge edge : this.edgeList) {
-					if (!(ST2.contains(edge) || deleted.contains(edge))) {
-						//should be sorted
-						candidates2.add(edge);					
-					}
-				}
-				
-				ST2 = branchAndBoundRecursive(ST2, candidates2, unionFind2, deleted, lowerBound);
-				
-				double weightST2 = 0;
-				
-				if(ST2 == null) {
-					weightST2 = Double.MAX_VALUE;
-				}
-				else {
-					for(Edge edge : ST2) {
-						weightST2 += edge.getWeight();
-					}
-				}
-				
-				//choose more optimal spanning tree
-				if(weightST1 <= weightST2) {
-					MST = ST1;
-				}
-				else {
-					MST = ST2;
-				}
-				return MST;
-			}
-
-			MST.add(nextEdge);
-			union(unionFind, v,w);
-			return branchAndBoundRecursive(MST, currentCandidates, unionFind, deleted, lowerBound);
-		}
-
-		return branchAndBoundRecursive(MST, currentCandidates, unionFind, deleted, lowerBound);
+		return new TranspositionTable(this.transpositionTableSize, this.vertices.getEdgePool().getEdgeCount());
 	}
-
-
-	//Union-Find functionality
-	private static int getRepresentative(int[] parents, int child) {
-		if (parents[child] == -1) {
-			return child;
-		}
-		return getRepresentative(parents, parents[child]);
+	
+	//returns the planar spanning tree computed by movingKruskal, or null if it doesn't span the pointset
+	private LinkedList<Edge> greedyIncumbent() {
+		GraphDrawing greedy = new GraphDrawing(this.vertices);
+		greedy.movingKruskal();
+		return spanningIncumbent(greedy.getEdgeList());
 	}
 	
-	private static void union(int[] parents, int src, int dest) {
-		int rep1 = getRepresentative(parents, src);
-		int rep2 = getRepresentative(parents, dest);
-		parents[rep1] = rep2;
+	//returns the argument tree if it can serve as incumbent, i.e. it spans the pointset, null otherwise
+	private LinkedList<Edge> spanningIncumbent(LinkedList<Edge> incumbent) {
+		if(incumbent == null || incumbent.size() != this.size-1) {
+			return null;
+		}
+		return incumbent;
 	}
 
+	//follows the planar spanning tree over the movement interval, the drawing keeps the tree at t=0
+	//(the trees after every change are in getKineticTree)
+	public int kineticTree() {
+		this.kineticTree = new KineticTree(this.vertices);
+		this.kineticTree.run();
+		this.edgeList = new LinkedList<Edge>(this.kineticTree.getTrees().get(0));
+		clearAdjList();
+		addToAdjList(this.edgeList);
+		return this.kineticTree.getEdgesRepaired();
+	}
+	
 	//computes a y-monotone path on the pointset
 	public double yMonotonePath() {
 		MovingPointSet2D points = new MovingPointSet2D(this.vertices);
@@ -637,13 +456,6 @@ public class GraphDrawing extends JComponent{
 		return weight;
 	}
 	
-	//returns true if argument edge crosses an edge in argument edgeList
-	private boolean isCrossing(Edge edge, LinkedList<Edge> edgeList) {
-		boolean isCrossing = edge.isCrossing(edgeList);
-		this.comparisonsCrossingCriterion += edge.getComparisons();
-		return isCrossing;
-	}
-	
 	//compares the object to another instance of GraphDrawing and stores deviations
 	public void findDifferences(GraphDrawing graph2) {
 		LinkedList<Edge> missing = new LinkedList<Edge>();
@@ -742,8 +554,41 @@ public class GraphDrawing extends JComponent{
 		return this.missingEdges;	
 		}
 
+	//returns the kinetic tree of the last run of kineticTree, null if there was none
+	public KineticTree getKineticTree() {
+		return this.kineticTree;
+	}
+	
 	public int getComparisonsCrossingCriterion() {
 		return this.comparisonsCrossingCriterion;
 	}
 	
+	public void setRelaxationBound(boolean relaxationBound) {
+		this.relaxationBound = relaxationBound;
+	}
+	
+	public void setWarmStart(boolean warmStart) {
+		this.warmStart = warmStart;
+	}
+	
+	public void setTranspositionTableSize(int transpositionTableSize) {
+		this.transpositionTableSize = transpositionTableSize;
+	}
+	
+	//lets optimalSlow and the branch-and-bound algorithms give up once System.nanoTime() passes the argument deadline
+	//(the tree they return is then incomplete or only the incumbent, see isTimedOut)
+	public void setDeadline(long deadline) {
+		this.hasDeadline = true;
+		this.deadline = deadline;
+	}
+	
+	//returns true if the last exact algorithm gave up at the deadline
+	public boolean isTimedOut() {
+		return this.timedOut;
+	}
+	
+	public void setDelaunayKruskal(boolean delaunayKruskal) {
+		this.delaunayKruskal = delaunayKruskal;
+	}
+	
 }
@@ -0,0 +1,423 @@
+package drawings;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+public class KineticTree {
+
+	//kinds of events
+	private static final int SWAP = 0;
+	private static final int ORIENTATION = 1;
+
+	private int size;
+	private int[] xCoords;
+	private int[] yCoords;
+	private int[] xMovements;
+	private int[] yMovements;
+
+	//candidate edges in the order of their length at the current time, and the position of every edge id in it (-1 for other edges)
+	private Edge[] order;
+	private int[] positions;
+
+	//id of the candidate between every pair of points, -1 if the pair isn't a candidate
+	private int[] pairIds;
+
+	//is the candidate at a position part of the tree?
+	private boolean[] inTree;
+
+	//current swap certificate of every pair of neighbouring positions, older swap events in the queue are outdated
+	private Event[] certificates;
+	private PriorityQueue<Event> events;
+
+	//positions of the points at the time crossings are evaluated
+	private double[] xs;
+	private double[] ys;
+
+	//output: the tree after every change and the times of the changes
+	private ArrayList<LinkedList<Edge>> trees;
+	private ArrayList<Double> changeTimes;
+
+	//statistical data
+	private int swapEvents;
+	private int orientationEvents;
+	private int edgesRepaired;
+
+	//weight-order swap of the candidates at position and position+1, or sign change of the orientation of the points i, j and k
+	private static class Event implements Comparable<Event> {
+		double time;
+		int kind;
+		int position;
+		int i;
+		int j;
+		int k;
+
+		@Override
+		public int compareTo(Event other) {
+			return Double.compare(this.time, other.time);
+		}
+	}
+
+	//prepares the kinetic tree on the candidate edges of the pointset (edges that don't violate the point criterion)
+	public KineticTree(MovingPointSet2D vertices) {
+		this(vertices, vertices.getEdgePool().getEdgesSetminusPK());
+	}
+
+	//prepares the kinetic tree on the argument edges of the pointset's pool, sorted by their initial weight
+	public KineticTree(MovingPointSet2D vertices, List<Edge> candidates) {
+		this.size = vertices.getsize();
+		this.xCoords = vertices.getxCoords();
+		this.yCoords = vertices.getyCoords();
+		this.xMovements = vertices.getxMovements();
+		this.yMovements = vertices.getyMovements();
+
+		this.order = candidates.toArray(new Edge[candidates.size()]);
+		this.positions = new int[vertices.getEdgePool().getEdgeCount()];
+		for (int id = 0; id < this.positions.length; id++) {
+			this.positions[id] = -1;
+		}
+		this.pairIds = new int[this.size * this.size];
+		for (int p = 0; p < this.pairIds.length; p++) {
+			this.pairIds[p] = -1;
+		}
+		for (int p = 0; p < this.order.length; p++) {
+			Edge edge = this.order[p];
+			this.positions[edge.getId()] = p;
+			this.pairIds[edge.getSrc() * this.size + edge.getDest()] = edge.getId();
+			this.pairIds[edge.getDest() * this.size + edge.getSrc()] = edge.getId();
+		}
+		this.inTree = new boolean[this.order.length];
+		this.certificates = new Event[Math.max(this.order.length - 1, 0)];
+		this.xs = new double[this.size];
+		this.ys = new double[this.size];
+	}
+
+	//follows the planar spanning tree over the movement from t=0 to t=1
+	//(at every time the tree is the one Kruskal's algorithm finds on the current weight order if it skips edges crossing the tree)
+	public void run() {
+		this.events = new PriorityQueue<Event>();
+		this.trees = new ArrayList<LinkedList<Edge>>();
+		this.changeTimes = new ArrayList<Double>();
+		this.swapEvents = 0;
+		this.orientationEvents = 0;
+		this.edgesRepaired = 0;
+
+		for (int p = 0; p + 1 < this.order.length; p++) {
+			certify(p, 0);
+		}
+		scheduleOrientationEvents();
+
+		positionsAt(evaluationTime(0));
+		for (int p = 0; p < this.order.length; p++) {
+			this.inTree[p] = false;
+		}
+		repair(0, this.order.length - 1);
+		recordTree(0);
+
+		while (!this.events.isEmpty()) {
+			Event event = this.events.poll();
+			if (event.kind == SWAP && this.certificates[event.position] != event) {
+				continue;
+			}
+			positionsAt(evaluationTime(event.time));
+			boolean changed;
+			if (event.kind == SWAP) {
+				this.swapEvents++;
+				changed = swap(event.position, event.time);
+			}
+			else {
+				this.orientationEvents++;
+				changed = orientationChanged(event.i, event.j, event.k);
+			}
+			if (changed) {
+				recordTree(event.time);
+			}
+		}
+	}
+
+	//swaps the candidates at position and position+1 and repairs the tree, returns true if the tree changed
+	private boolean swap(int position, double time) {
+		Edge edge = this.order[position];
+		this.order[position] = this.order[position + 1];
+		this.order[position + 1] = edge;
+		this.positions[this.order[position].getId()] = position;
+		this.positions[this.order[position + 1].getId()] = position + 1;
+		boolean status = this.inTree[position];
+		this.inTree[position] = this.inTree[position + 1];
+		this.inTree[position + 1] = status;
+
+		for (int p = Math.max(position - 1, 0); p <= Math.min(position + 1, this.certificates.length - 1); p++) {
+			certify(p, time);
+		}
+		//both edges might have been decided differently in the new order
+		return repair(position, position + 1);
+	}
+
+	//repairs the tree after the points i, j and k became collinear, returns true if the tree changed
+	private boolean orientationChanged(int i, int j, int k) {
+		//crossings can only have changed between an edge of two of the points and an edge at the third one,
+		//and only matter if the lighter edge of such a pair is in the tree
+		int from = this.order.length;
+		int to = -1;
+		int[] points = {i, j, k};
+		for (int a = 0; a < 3; a++) {
+			int first = points[a];
+			int second = points[(a + 1) % 3];
+			int third = points[(a + 2) % 3];
+			int position = position(first, second);
+			if (position < 0) {
+				continue;
+			}
+			for (int x = 0; x < this.size; x++) {
+				if (x == first || x == second || x == third) {
+					continue;
+				}
+				int other = position(third, x);
+				if (other < 0) {
+					continue;
+				}
+				int lighter = Math.min(position, other);
+				int heavier = Math.max(position, other);
+				if (this.inTree[lighter]) {
+					from = Math.min(from, heavier);
+					to = Math.max(to, heavier);
+				}
+			}
+		}
+		if (to < 0) {
+			return false;
+		}
+		return repair(from, to);
+	}
+
+	//decides again which candidates starting at position from belong to the tree, returns true if the tree changed
+	//(once a decision differs all later ones are checked as well, otherwise the decisions after position to can't have changed)
+	private boolean repair(int from, int to) {
+		//the tree edges before from stay, they form the partial tree the candidates are added to
+		UnionFind unionFind = new UnionFind(this.size);
+		ArrayList<Edge> accepted = new ArrayList<Edge>();
+		for (int p = 0; p < from; p++) {
+			if (this.inTree[p]) {
+				unionFind.union(this.order[p].getSrc(), this.order[p].getDest());
+				accepted.add(this.order[p]);
+			}
+		}
+
+		boolean changed = false;
+		for (int p = from; p < this.order.length; p++) {
+			if (p > to && !changed) {
+				break;
+			}
+			Edge edge = this.order[p];
+			this.edgesRepaired++;
+			boolean accept = accepted.size() < this.size - 1
+					&& !unionFind.connected(edge.getSrc(), edge.getDest())
+					&& !crossesAny(edge, accepted);
+			if (accept) {
+				unionFind.union(edge.getSrc(), edge.getDest());
+				accepted.add(edge);
+			}
+			if (accept != this.inTree[p]) {
+				this.inTree[p] = accept;
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	//returns true if the edge crosses one of the argument edges at the evaluation time
+	private boolean crossesAny(Edge edge, ArrayList<Edge> edges) {
+		for (Edge other : edges) {
+			if (crossesAt(edge, other)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//returns true if both edges cross at the evaluation time (the points are in general position then, edges sharing a point don't cross)
+	private boolean crossesAt(Edge e1, Edge e2) {
+		int a = e1.getSrc();
+		int b = e1.getDest();
+		int c = e2.getSrc();
+		int d = e2.getDest();
+		if (a == c || a == d || b == c || b == d) {
+			return false;
+		}
+		return Math.signum(orientationAt(a, b, c)) * Math.signum(orientationAt(a, b, d)) < 0
+				&& Math.signum(orientationAt(c, d, a)) * Math.signum(orientationAt(c, d, b)) < 0;
+	}
+
+	private double orientationAt(int i, int j, int k) {
+		return (this.xs[j] - this.xs[i]) * (this.ys[k] - this.ys[i]) - (this.ys[j] - this.ys[i]) * (this.xs[k] - this.xs[i]);
+	}
+
+	//returns a time after the argument time but before the next event, at which no points are degenerate
+	private double evaluationTime(double time) {
+		double next = 1;
+		if (!this.events.isEmpty()) {
+			next = Math.min(next, this.events.peek().time);
+		}
+		if (next <= time) {
+			//further events happen at the same time, evaluate just after it
+			return time + 1e-9;
+		}
+		return time + (next - time) / 2;
+	}
+
+	//moves the evaluated positions of the points to the argument time
+	private void positionsAt(double time) {
+		for (int i = 0; i < this.size; i++) {
+			this.xs[i] = this.xCoords[i] + time * this.xMovements[i];
+			this.ys[i] = this.yCoords[i] + time * this.yMovements[i];
+		}
+	}
+
+	//schedules the swap of the candidates at position and position+1 for the time the first one becomes longer than the second one
+	private void certify(int position, double time) {
+		Edge first = this.order[position];
+		Edge second = this.order[position + 1];
+		//squared lengths are quadratic in time, the swap happens at a root of their difference where it turns positive
+		long[] f = squaredLength(first);
+		long[] g = squaredLength(second);
+		double swap = signChange(f[0] - g[0], f[1] - g[1], f[2] - g[2], time, true);
+		if (swap < 0) {
+			this.certificates[position] = null;
+			return;
+		}
+		Event event = new Event();
+		event.time = swap;
+		event.kind = SWAP;
+		event.position = position;
+		this.certificates[position] = event;
+		this.events.add(event);
+	}
+
+	//schedules an event for every time in (0,1] at which three points change their orientation
+	private void scheduleOrientationEvents() {
+		for (int i = 0; i < this.size; i++) {
+			for (int j = i + 1; j < this.size; j++) {
+				for (int k = j + 1; k < this.size; k++) {
+					long[] o = orientationPolynomial(i, j, k);
+					double time = 0;
+					while ((time = signChange(o[0], o[1], o[2], time, false)) >= 0) {
+						Event event = new Event();
+						event.time = time;
+						event.kind = ORIENTATION;
+						event.i = i;
+						event.j = j;
+						event.k = k;
+						this.events.add(event);
+					}
+				}
+			}
+		}
+	}
+
+	//returns the coefficients c + b*t + a*t^2 (as {c, b, a}) of the squared length of the edge at time t
+	private long[] squaredLength(Edge edge) {
+		long dx = this.xCoords[edge.getDest()] - this.xCoords[edge.getSrc()];
+		long dy = this.yCoords[edge.getDest()] - this.yCoords[edge.getSrc()];
+		long mx = this.xMovements[edge.getDest()] - this.xMovements[edge.getSrc()];
+		long my = this.yMovements[edge.getDest()] - this.yMovements[edge.getSrc()];
+		return new long[] {dx*dx + dy*dy, 2*(dx*mx + dy*my), mx*mx + my*my};
+	}
+
+	//returns the coefficients {c, b, a} of the orientation of the points i, j and k at time t
+	private long[] orientationPolynomial(int i, int j, int k) {
+		long ux = this.xCoords[j] - this.xCoords[i];
+		long uy = this.yCoords[j] - this.yCoords[i];
+		long vx = this.xCoords[k] - this.xCoords[i];
+		long vy = this.yCoords[k] - this.yCoords[i];
+		long mux = this.xMovements[j] - this.xMovements[i];
+		long muy = this.yMovements[j] - this.yMovements[i];
+		long mvx = this.xMovements[k] - this.xMovements[i];
+		long mvy = this.yMovements[k] - this.yMovements[i];
+		return new long[] {ux*vy - uy*vx, ux*mvy + mux*vy - uy*mvx - muy*vx, mux*mvy - muy*mvx};
+	}
+
+	//returns the first time in (after, 1] at which c + b*t + a*t^2 changes its sign, -1 if there is none
+	//(increasing only accepts changes from negative to positive, and then also a change exactly at after, e.g. of edges of equal weight)
+	private static double signChange(long c, long b, long a, double after, boolean increasing) {
+		double[] roots = new double[2];
+		int count = 0;
+		if (a == 0) {
+			if (b != 0) {
+				roots[count++] = -(double) c / b;
+			}
+		}
+		else {
+			double discriminant = (double) b * b - 4.0 * a * c;
+			//a double root touches zero without a sign change
+			if (discriminant > 0) {
+				double sqrt = Math.sqrt(discriminant);
+				//numerically stable form of the quadratic formula
+				double q = -0.5 * (b + Math.copySign(sqrt, b));
+				roots[count++] = q / a;
+				if (q != 0) {
+					roots[count++] = c / q;
+				}
+			}
+		}
+		if (count == 2 && roots[1] < roots[0]) {
+			double temp = roots[0];
+			roots[0] = roots[1];
+			roots[1] = temp;
+		}
+		for (int r = 0; r < count; r++) {
+			double root = roots[r];
+			if (root < after || (root == after && !increasing) || root > 1) {
+				continue;
+			}
+			//the derivative at a simple root tells the direction of the sign change
+			double slope = b + 2.0 * a * root;
+			if (!increasing || slope > 0) {
+				return root;
+			}
+		}
+		return -1;
+	}
+
+	//returns the position of the edge between the points i and j among the candidates, -1 if it isn't a candidate
+	private int position(int i, int j) {
+		int id = this.pairIds[i * this.size + j];
+		return id < 0 ? -1 : this.positions[id];
+	}
+
+	//stores a copy of the current tree, sorted by the current weight order
+	private void recordTree(double time) {
+		LinkedList<Edge> tree = new LinkedList<Edge>();
+		for (int p = 0; p < this.order.length; p++) {
+			if (this.inTree[p]) {
+				tree.add(this.order[p]);
+			}
+		}
+		this.trees.add(tree);
+		this.changeTimes.add(time);
+	}
+
+	//returns the tree after every change, starting with the tree at t=0
+	public List<LinkedList<Edge>> getTrees() {
+		return Collections.unmodifiableList(this.trees);
+	}
+
+	//returns the times at which the trees returned by getTrees start, starting with 0
+	public List<Double> getChangeTimes() {
+		return Collections.unmodifiableList(this.changeTimes);
+	}
+
+	public int getSwapEvents() {
+		return this.swapEvents;
+	}
+
+	public int getOrientationEvents() {
+		return this.orientationEvents;
+	}
+
+	public int getEdgesRepaired() {
+		return this.edgesRepaired;
+	}
+
+}
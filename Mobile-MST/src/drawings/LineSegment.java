@@ -101,8 +101,8 @@ public class LineSegment extends JComponent{
 			return false;
 		}
 		else {
-			double halfPlaneBefore = Math.signum(startPoint.angle(this.endPoint, p));
-			double halfPlaneAfter = Math.signum(startPoint.angleAfterMoving(this.endPoint, p));
+			long halfPlaneBefore = Long.signum(startPoint.orientation(this.endPoint, p));
+			long halfPlaneAfter = Long.signum(startPoint.orientationAfterMoving(this.endPoint, p));
 			if(halfPlaneBefore != halfPlaneAfter) {
 				return true;
 			}
@@ -198,17 +198,6 @@ public class LineSegment extends JComponent{
 			
 	}
 	
-	//returns true if this shares an endpoint with the argument
-	private boolean sharesEndpoint(LineSegment l2) {
-		MovingPoint2D l1Start = this.getStartPoint();
-		MovingPoint2D l1End = this.getEndPoint();
-		MovingPoint2D l2Start = l2.getStartPoint();
-		MovingPoint2D l2End = l2.getEndPoint();
-		
-		return (l1Start.startsEqualTo(l2Start) || l1Start.startsEqualTo(l2End) || l1End.startsEqualTo(l2Start) || l1End.startsEqualTo(l2End));
-		
-	}
-	
 	//returns true, if a point is strictly within a rectangle (not on the boundary) with this segment as diagonal
 	public boolean isPointInArea(Point2D.Double p) {
 		double x = p.getX();
@@ -248,42 +237,61 @@ public class LineSegment extends JComponent{
 	
 	//returns true if this has an intersection with the argument line segment
 	public boolean isCrossing(LineSegment l2) {
+		return isCrossing(this.startPoint.getxCoord(), this.startPoint.getyCoord(), this.endPoint.getxCoord(), this.endPoint.getyCoord(),
+				l2.getStartPoint().getxCoord(), l2.getStartPoint().getyCoord(), l2.getEndPoint().getxCoord(), l2.getEndPoint().getyCoord());
+	}
+	
+	//returns true if the segments (a,b) and (c,d) intersect in a point interior to both or overlap on a common line,
+	//segments that only touch in an endpoint are not crossing
+	public static boolean isCrossing(int ax, int ay, int bx, int by, int cx, int cy, int dx, int dy) {
 		
-		MovingPoint2D s1 = this.getStartPoint();
-		MovingPoint2D s2 = l2.getStartPoint();
-		MovingPoint2D e1 = this.getEndPoint();
-		MovingPoint2D e2 = l2.getEndPoint();
+		//segments whose bounding boxes are disjoint can't intersect
+		if (Math.max(ax, bx) < Math.min(cx, dx) || Math.max(cx, dx) < Math.min(ax, bx) ||
+				Math.max(ay, by) < Math.min(cy, dy) || Math.max(cy, dy) < Math.min(ay, by)) {
+			return false;
+		}
 		
-		LinearFunct g1 = new LinearFunct(s1.getxCoord(), s1.getyCoord(), e1.getxCoord(), e1.getyCoord());
-		LinearFunct g2 = new LinearFunct(s2.getxCoord(), s2.getyCoord(), e2.getxCoord(), e2.getyCoord());
+		long o1 = MovingPoint2D.orientation(ax, ay, bx, by, cx, cy);
+		long o2 = MovingPoint2D.orientation(ax, ay, bx, by, dx, dy);
 		
 		//if both line segments lie on one line
-		if (g1.isIdentical(g2)) {
-			// if the line segments overlap
-			if((s1.compareTo(s2) <= 0 && e1.compareTo(s2) > 0) ||
-					(e1.compareTo(e2) >= 0 && s1.compareTo(e2) < 0) || 
-					(s1.compareTo(s2) > 0 && e1.compareTo(e2) < 0)) {
-				return true;
+		if (o1 == 0 && o2 == 0) {
+			//orient both segments from their lower to their upper point (left to right in case of tie)
+			if (isBelow(bx, by, ax, ay)) {
+				int temp = ax; ax = bx; bx = temp;
+				temp = ay; ay = by; by = temp;
 			}
-			else {
-				return false;
+			if (isBelow(dx, dy, cx, cy)) {
+				int temp = cx; cx = dx; dx = temp;
+				temp = cy; cy = dy; dy = temp;
 			}
+			// the line segments overlap if the upper of both start points lies below the lower of both end points
+			boolean laterStartIsC = isBelow(ax, ay, cx, cy);
+			int startX = laterStartIsC ? cx : ax;
+			int startY = laterStartIsC ? cy : ay;
+			boolean earlierEndIsD = isBelow(dx, dy, bx, by);
+			int endX = earlierEndIsD ? dx : bx;
+			int endY = earlierEndIsD ? dy : by;
+			return isBelow(startX, startY, endX, endY);
 		}
-	
-	//if the segments are not parallel and share an endpoint, they intersect only in this shared endpoint and are only considered touching
-	if(this.sharesEndpoint(l2)) {
-		return false;
-	}
-	
-	//if the segments are not parallel, find the intersection if one exists
-	Point2D.Double intersection = g1.getIntersection(g2);
-	if (intersection != null) {
-		if (this.isPointInArea(intersection) && l2.isPointInArea(intersection)) {
-			return true;
+		
+		//if the segments are not parallel and share an endpoint, they intersect only in this shared endpoint and are only considered touching
+		if ((ax == cx && ay == cy) || (ax == dx && ay == dy) || (bx == cx && by == cy) || (bx == dx && by == dy)) {
+			return false;
 		}
+		
+		//the segments cross if each one has the endpoints of the other strictly on opposite sides
+		if ((o1 > 0 && o2 > 0) || (o1 < 0 && o2 < 0) || o1 == 0 || o2 == 0) {
+			return false;
+		}
+		long o3 = MovingPoint2D.orientation(cx, cy, dx, dy, ax, ay);
+		long o4 = MovingPoint2D.orientation(cx, cy, dx, dy, bx, by);
+		return (o3 > 0 && o4 < 0) || (o3 < 0 && o4 > 0);
 	}
 	
-		return false;
+	//returns true if (x1,y1) comes before (x2,y2) when ordering points by y and then by x, like MovingPoint2D.compareTo
+	private static boolean isBelow(int x1, int y1, int x2, int y2) {
+		return y1 < y2 || (y1 == y2 && x1 < x2);
 	}
 	
 	//returns true if this crosses the argument LineSegment
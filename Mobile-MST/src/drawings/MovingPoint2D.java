@@ -41,29 +41,48 @@ public class MovingPoint2D implements Comparable{
 	// returns the angle of pp1 to pp2 in clockwise direction(or as negative angle in counterclockwise direction)
 	// (p,p1,p2) -> [-180, 180]
 	public double angle(MovingPoint2D p1, MovingPoint2D p2) {
-		double dxa = this.xCoord - p1.getxCoord();
-		double dya = this.yCoord - p1.getyCoord();
-		double dxb = this.xCoord - p2.getxCoord();
-		double dyb = this.yCoord - p2.getyCoord();
-		double aDotb = (dxa*dxb) + (dya*dyb);
-		double det = (dxa*dyb - dya*dxb);
-		double angle = Math.toDegrees(Math.atan2(det, aDotb));
-		return angle;
+		return angle(this.xCoord, this.yCoord, p1.getxCoord(), p1.getyCoord(), p2.getxCoord(), p2.getyCoord());
 	}
 	
 	// returns the angle of pp1 to pp2 in clockwise direction(or as negative angle in counterclockwise direction) after the movement
 		// (p,p1,p2) -> [-180, 180]
 	public double angleAfterMoving(MovingPoint2D p1, MovingPoint2D p2) {
-		double dxa = (this.xCoord + this.xMovement) - (p1.getxCoord() + p1.getxMovement());
-		double dya = (this.yCoord + this.yMovement) - (p1.getyCoord() + p1.getyMovement());
-		double dxb = (this.xCoord + this.xMovement) - (p2.getxCoord() + p2.getxMovement());
-		double dyb = (this.yCoord + this.yMovement) - (p2.getyCoord() + p2.getyMovement());
+		return angle(this.xCoord + this.xMovement, this.yCoord + this.yMovement, 
+				p1.getxCoord() + p1.getxMovement(), p1.getyCoord() + p1.getyMovement(), 
+				p2.getxCoord() + p2.getxMovement(), p2.getyCoord() + p2.getyMovement());
+	}
+	
+	// returns the angle of pp1 to pp2 given the coordinates of p, p1 and p2
+	// (p,p1,p2) -> [-180, 180]
+	public static double angle(int x, int y, int x1, int y1, int x2, int y2) {
+		double dxa = x - x1;
+		double dya = y - y1;
+		double dxb = x - x2;
+		double dyb = y - y2;
 		double aDotb = (dxa*dxb) + (dya*dyb);
 		double det = (dxa*dyb - dya*dxb);
 		double angle = Math.toDegrees(Math.atan2(det, aDotb));
 		return angle;
 	}
 	
+	// returns the orientation of (p,p1,p2): positive or negative depending on the side of the line pp1 that p2 lies on, 0 if collinear
+	public long orientation(MovingPoint2D p1, MovingPoint2D p2) {
+		return orientation(this.xCoord, this.yCoord, p1.getxCoord(), p1.getyCoord(), p2.getxCoord(), p2.getyCoord());
+	}
+	
+	// returns the orientation of (p,p1,p2) after the movement
+	public long orientationAfterMoving(MovingPoint2D p1, MovingPoint2D p2) {
+		return orientation(this.xCoord + this.xMovement, this.yCoord + this.yMovement, 
+				p1.getxCoord() + p1.getxMovement(), p1.getyCoord() + p1.getyMovement(), 
+				p2.getxCoord() + p2.getxMovement(), p2.getyCoord() + p2.getyMovement());
+	}
+	
+	// returns the cross product of (p1 - p) and (p2 - p), its sign tells on which side of the line through p and p1 the point p2 lies
+	// (0 if all three points are collinear)
+	public static long orientation(int x, int y, int x1, int y1, int x2, int y2) {
+		return ((long) x1 - x) * ((long) y2 - y) - ((long) y1 - y) * ((long) x2 - x);
+	}
+	
 	//returns the euclidean distance between two non-moving points given their position
 	public static double pointDistance(double x1, double y1, double x2, double y2) {
 		return Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
@@ -32,18 +32,32 @@ public class MovingPointSet2D extends JComponent{
 	private int size;
 	private MovingPoint2D[] points;
 	
+	//coordinates and movement of the contained points as parallel arrays, indexed like points
+	//(reused across randomizations so that sampling does not allocate per point)
+	private int[] xCoords;
+	private int[] yCoords;
+	private int[] xMovements;
+	private int[] yMovements;
+	
+	//sorted candidate edges and their crossings, built on first use and discarded when the points change
+	private EdgePool edgePool;
+	
 	public MovingPointSet2D() {
 		this.size = 0;
+		this.points = new MovingPoint2D[0];
+		this.storeCoordinates();
 	}
 	
 	public MovingPointSet2D(int size) {
 		this.size = size;
 		this.points = new MovingPoint2D[size];
+		this.storeCoordinates();
 	}
 	
 	public MovingPointSet2D(MovingPoint2D[] points) {
 		this.points = points;
 		this.size = points.length;
+		this.storeCoordinates();
 	}
 	
 	public MovingPointSet2D(MovingPointSet2D other) {
@@ -53,6 +67,7 @@ public class MovingPointSet2D extends JComponent{
 		for(int i = 0; i < this.size; i++) {
 			this.points[i] = new MovingPoint2D(otherPoints[i]);
 		}
+		this.storeCoordinates();
 	}
 
 	public void paint(Graphics g) {
@@ -77,9 +92,42 @@ public class MovingPointSet2D extends JComponent{
 	//randomize all points in the pointsets according within the specified bounds
 	public void randomizeMovingPointSet(Random random) {
 		for(int i = 0; i < points.length; i++) {
+			randomizePoint(i, random);
+		}
+	}
+	
+	//randomizes a single point within the specified bounds, reusing its MovingPoint2D if there is one
+	private void randomizePoint(int i, Random random) {
+		if(points[i] == null) {
 			points[i] = new MovingPoint2D();
-			points[i].randomizePoint(xLeftBound, xRightBound, yLowerBound, yUpperBound, dxLower, dxUpper, dyLower, dyUpper, random);
 		}
+		points[i].randomizePoint(xLeftBound, xRightBound, yLowerBound, yUpperBound, dxLower, dxUpper, dyLower, dyUpper, random);
+		storeCoordinates(i);
+	}
+	
+	//copies coordinates and movement of all points into the parallel arrays
+	private void storeCoordinates() {
+		this.edgePool = null;
+		if(xCoords == null || xCoords.length != points.length) {
+			this.xCoords = new int[points.length];
+			this.yCoords = new int[points.length];
+			this.xMovements = new int[points.length];
+			this.yMovements = new int[points.length];
+		}
+		for(int i = 0; i < points.length; i++) {
+			if(points[i] != null) {
+				storeCoordinates(i);
+			}
+		}
+	}
+	
+	//copies coordinates and movement of a single point into the parallel arrays
+	private void storeCoordinates(int i) {
+		this.edgePool = null;
+		xCoords[i] = points[i].getxCoord();
+		yCoords[i] = points[i].getyCoord();
+		xMovements[i] = points[i].getxMovement();
+		yMovements[i] = points[i].getyMovement();
 	}
 	
 	public void addPoint(MovingPoint2D p) {
@@ -90,6 +138,7 @@ public class MovingPointSet2D extends JComponent{
 		newSet[this.size] = p;
 		this.size += 1;
 		this.points = newSet;
+		this.storeCoordinates();
 	}
 	
 	
@@ -98,22 +147,21 @@ public class MovingPointSet2D extends JComponent{
 		for (int i = 0; i < points.length-2; i++) {
 			for (int j = i+1; j < points.length-1; j++) {
 				//enforce unique y-values
-				if (points[i].getyCoord() == points[j].getyCoord()) {
-					points[j].randomizePoint(xLeftBound, xRightBound, yLowerBound, yUpperBound, dxLower, dxUpper, dyLower, dyUpper, random);
+				if (yCoords[i] == yCoords[j]) {
+					randomizePoint(j, random);
 					i = -1;
 				}
 				if (i == -1) {
 					break;
 				}
 				for (int k = j+1; k < points.length; k++) {
-					if(points[j].getyCoord() == points[k].getyCoord() || points[i].getyCoord() == points[k].getyCoord()) {
-						points[k].randomizePoint(xLeftBound, xRightBound, yLowerBound, yUpperBound, dxLower, dxUpper, dyLower, dyUpper, random);
+					if(yCoords[j] == yCoords[k] || yCoords[i] == yCoords[k]) {
+						randomizePoint(k, random);
 						i = -1;
 						break;
 					}
-					double angle = points[i].angle(points[j], points[k]);
-					if(angle == 0 || angle == 180 || angle == -180) {
-						points[k].randomizePoint(xLeftBound, xRightBound, yLowerBound, yUpperBound, dxLower, dxUpper, dyLower, dyUpper, random);
+					if(orientation(i, j, k) == 0) {
+						randomizePoint(k, random);
 						i = -1;
 						break;
 					}
@@ -163,6 +211,7 @@ public class MovingPointSet2D extends JComponent{
 		
 		this.points = evilSet.getPoints();
 		this.size = evilSet.getsize();
+		this.storeCoordinates();
 	}
 	
 	//add all points contained in the argument to the pointset
@@ -178,6 +227,7 @@ public class MovingPointSet2D extends JComponent{
 			newSet[counter + i] = this.points[i];
 		}
 		this.points = newSet;
+		this.storeCoordinates();
 		
 	}
 	
@@ -216,9 +266,57 @@ public class MovingPointSet2D extends JComponent{
 		return false;
 	}
 	
+	//returns true if the segment between the points i and j violates the point criterion on this pointset
+	public boolean violatesPointCriterion(int i, int j) {
+		for(int k = 0; k < this.size; k++) {
+			if (!startsEqual(k, i) && !startsEqual(k, j)) {
+				if(violatesPointCriterion(i, j, k)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+	
+	//returns true if point k changes sides of the segment between the points i and j during the movement
+	private boolean violatesPointCriterion(int i, int j, int k) {
+		//assume dy=0 for now
+		int y1 = yCoords[i];
+		int y2 = yCoords[j];
+		int yp = yCoords[k];
+		if (y1 > y2) {
+			int temp = y1;
+			y1 = y2;
+			y2 = temp;
+		}
+		if(yp < y1 || yp > y2) {
+			return false;
+		}
+		return Long.signum(orientation(i, j, k)) != Long.signum(orientationAfterMoving(i, j, k));
+	}
+	
+	//returns the orientation of the points i, j and k at their initial position:
+	//positive or negative depending on the side of the line through i and j that k lies on, 0 if they are collinear
+	public long orientation(int i, int j, int k) {
+		return MovingPoint2D.orientation(xCoords[i], yCoords[i], xCoords[j], yCoords[j], xCoords[k], yCoords[k]);
+	}
+	
+	//returns the orientation of the points i, j and k after the movement
+	public long orientationAfterMoving(int i, int j, int k) {
+		return MovingPoint2D.orientation(xCoords[i] + xMovements[i], yCoords[i] + yMovements[i], 
+				xCoords[j] + xMovements[j], yCoords[j] + yMovements[j], 
+				xCoords[k] + xMovements[k], yCoords[k] + yMovements[k]);
+	}
+	
+	//returns true if the points i and j share their initial position
+	private boolean startsEqual(int i, int j) {
+		return (xCoords[i] == xCoords[j] && yCoords[i] == yCoords[j]);
+	}
+	
 	//sort the contained points by their y-axis position
 	public void sortY() {
 		Arrays.sort(this.points);
+		this.storeCoordinates();
 		}
 	
 	
@@ -233,6 +331,20 @@ public class MovingPointSet2D extends JComponent{
 	public void setPoints(MovingPoint2D[] points) {
 		this.points = points;
 		this.size = points.length;
+		this.storeCoordinates();
+	}
+	
+	//returns the sorted candidate edges on this pointset, shared by all algorithms run on it
+	public EdgePool getEdgePool() {
+		if(this.edgePool == null) {
+			this.edgePool = new EdgePool(this);
+		}
+		return this.edgePool;
+	}
+	
+	//returns the crossings between all edges on this pointset
+	public CrossingMatrix getCrossingMatrix() {
+		return getEdgePool().getCrossingMatrix();
 	}
 	
 	public MovingPoint2D getPoint(int number) {
@@ -248,6 +360,41 @@ public class MovingPointSet2D extends JComponent{
 	public void setSize(int size) {
 		this.size = size;
 		this.points = new MovingPoint2D[size];
+		this.storeCoordinates();
+	}
+	
+	public int getxCoord(int i) {
+		return xCoords[i];
+	}
+	
+	public int getyCoord(int i) {
+		return yCoords[i];
+	}
+	
+	public int getxMovement(int i) {
+		return xMovements[i];
+	}
+	
+	public int getyMovement(int i) {
+		return yMovements[i];
+	}
+	
+	//the arrays below are shared with this pointset and must not be modified
+	
+	public int[] getxCoords() {
+		return xCoords;
+	}
+	
+	public int[] getyCoords() {
+		return yCoords;
+	}
+	
+	public int[] getxMovements() {
+		return xMovements;
+	}
+	
+	public int[] getyMovements() {
+		return yMovements;
 	}
 
 	public int getxLeftBound() {
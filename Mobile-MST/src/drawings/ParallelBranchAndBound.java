@@ -0,0 +1,191 @@
+package drawings;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+import util.SolverProgress;
+
+public class ParallelBranchAndBound {
+
+	//alternative trees are only searched in a separate task while they miss at least this many edges
+	private static final int MIN_MISSING_EDGES_TO_FORK = 3;
+
+	private MovingPointSet2D vertices;
+	private EdgePool pool;
+	private boolean relaxationBound;
+
+	//best spanning tree found by any task so far, bestWeight is read without locking for pruning
+	private volatile double bestWeight;
+	private LinkedList<Edge> bestTree;
+
+	//name of the thread that started the search, all tasks publish their progress under it
+	private String progressKey;
+
+	//System.nanoTime() after which all tasks give up, only if hasDeadline
+	private boolean hasDeadline;
+	private long deadline;
+	private volatile boolean timedOut;
+
+	//statistical data
+	private LongAdder edgesVisited;
+	private LongAdder comparisonsCrossingCriterion;
+
+	public ParallelBranchAndBound(MovingPointSet2D vertices, boolean relaxationBound) {
+		this.vertices = vertices;
+		this.pool = vertices.getEdgePool();
+		//tasks only check candidates for crossings, and must not fill the matrix concurrently
+		vertices.getCrossingMatrix().computeRows(this.pool.getEdgesSetminusPK());
+		this.relaxationBound = relaxationBound;
+		this.edgesVisited = new LongAdder();
+		this.comparisonsCrossingCriterion = new LongAdder();
+	}
+
+	//computes a planar minimal spanning tree on the argument pool, returns null if there is none
+	public LinkedList<Edge> solve(ForkJoinPool forkJoinPool) {
+		return solve(forkJoinPool, null);
+	}
+
+	//computes a planar minimal spanning tree on the argument pool, only searching trees lighter than the argument incumbent
+	//(returns the incumbent if there is none, null starts without one)
+	public LinkedList<Edge> solve(ForkJoinPool forkJoinPool, LinkedList<Edge> incumbent) {
+		this.bestWeight = Double.MAX_VALUE;
+		this.bestTree = null;
+		this.progressKey = Thread.currentThread().getName();
+		if (incumbent != null) {
+			this.bestTree = new LinkedList<Edge>(incumbent);
+			this.bestWeight = 0;
+			for (Edge edge : incumbent) {
+				this.bestWeight += edge.getWeight();
+			}
+			if (SolverProgress.isEnabled()) {
+				SolverProgress.setIncumbentWeight(this.progressKey, this.bestWeight);
+			}
+		}
+		this.edgesVisited.reset();
+		this.comparisonsCrossingCriterion.reset();
+		this.timedOut = false;
+
+		CandidateList candidates = new CandidateList(this.pool.getEdgesSetminusPK());
+		forkJoinPool.invoke(new Subtree(new LinkedList<Edge>(), 0, candidates, new long[this.pool.getWords()]));
+		return this.bestTree;
+	}
+
+	//stores the argument tree if it is lighter than the best one found so far
+	private synchronized void offer(LinkedList<Edge> tree, double weight) {
+		if (weight < this.bestWeight) {
+			this.bestWeight = weight;
+			this.bestTree = tree;
+			if (SolverProgress.isEnabled()) {
+				SolverProgress.setIncumbentWeight(this.progressKey, weight);
+			}
+		}
+	}
+
+	//task searching all spanning trees that extend a partial tree with its candidates
+	private class Subtree extends RecursiveAction {
+
+		private LinkedList<Edge> MST;
+		private double MSTWeight;
+		private CandidateList candidates;
+		private long[] deletedEdges;
+
+		//alternative trees handed to other tasks, joined before this task completes
+		private ArrayList<Subtree> forked;
+
+		Subtree(LinkedList<Edge> MST, double MSTWeight, CandidateList candidates, long[] deletedEdges) {
+			this.MST = MST;
+			this.MSTWeight = MSTWeight;
+			this.candidates = candidates;
+			this.deletedEdges = deletedEdges;
+		}
+
+		@Override
+		protected void compute() {
+			this.forked = new ArrayList<Subtree>();
+			if (timedOut) {
+				return;
+			}
+
+			SharedSearch search = new SharedSearch(this);
+			if (hasDeadline) {
+				search.setDeadline(deadline);
+			}
+			search.search(this.MST, this.MSTWeight, this.candidates, this.deletedEdges, Double.MAX_VALUE);
+			if (search.isTimedOut()) {
+				timedOut = true;
+			}
+
+			edgesVisited.add(search.getEdgesVisited());
+			comparisonsCrossingCriterion.add(search.getComparisonsCrossingCriterion());
+			for (int i = this.forked.size() - 1; i >= 0; i--) {
+				this.forked.get(i).join();
+			}
+		}
+	}
+
+	//same search as GraphDrawing.branchAndBound, but the best tree is shared through offer and alternative trees may be forked
+	private class SharedSearch extends TreeSearch {
+
+		private Subtree task;
+
+		SharedSearch(Subtree task) {
+			super(vertices, true, relaxationBound);
+			this.task = task;
+		}
+
+		//prune searches that can't beat the best tree of all tasks
+		@Override
+		protected double bound(double lowerBound) {
+			return Math.min(lowerBound, bestWeight);
+		}
+
+		//only offer knows if the tree is still lighter than the best tree of all tasks, and publishes it
+		@Override
+		protected void publishIncumbent(double weight) {
+		}
+
+		@Override
+		protected LinkedList<Edge> completed(List<Edge> tree, double treeWeight) {
+			LinkedList<Edge> copy = new LinkedList<Edge>(tree);
+			offer(copy, treeWeight);
+			return copy;
+		}
+
+		//let idle workers steal the alternative while this task continues without the edge
+		@Override
+		protected boolean forkAlternative(List<Edge> alternative, double alternativeWeight, CandidateList candidates, long[] deletedEdges, int missingEdges) {
+			if (missingEdges >= MIN_MISSING_EDGES_TO_FORK && ForkJoinTask.getSurplusQueuedTaskCount() < 2) {
+				Subtree subtree = new Subtree(new LinkedList<Edge>(alternative), alternativeWeight, new CandidateList(candidates), deletedEdges.clone());
+				subtree.fork();
+				this.task.forked.add(subtree);
+				return true;
+			}
+			return false;
+		}
+	}
+
+	//gives up all tasks still running when System.nanoTime() passes the argument deadline (must be set before solving),
+	//solve then returns the best tree found so far and isTimedOut() is true
+	public void setDeadline(long deadline) {
+		this.hasDeadline = true;
+		this.deadline = deadline;
+	}
+
+	public boolean isTimedOut() {
+		return this.timedOut;
+	}
+
+	public int getEdgesVisited() {
+		return this.edgesVisited.intValue();
+	}
+
+	public int getComparisonsCrossingCriterion() {
+		return this.comparisonsCrossingCriterion.intValue();
+	}
+
+}
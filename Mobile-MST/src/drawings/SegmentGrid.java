@@ -0,0 +1,129 @@
+package drawings;
+
+public class SegmentGrid {
+
+	//number of cells along each axis
+	private int cellsPerSide;
+
+	//bounding box of the initial positions of the pointset, which the grid covers
+	private int minX;
+	private int minY;
+	private long spanX;
+	private long spanY;
+
+	//initial coordinates of the points, shared with the pointset
+	private int[] xCoords;
+	private int[] yCoords;
+
+	//edges inserted into each cell, cells are numbered row by row
+	private Edge[][] cells;
+	private int[] cellSizes;
+
+	//query stamp of every edge id, so that an edge covering several cells is only compared once per query
+	private int[] stamps;
+	private int query;
+
+	//statistical data
+	private int comparisons;
+
+	//builds an empty grid over the initial positions of the pointset with about one cell per point
+	public SegmentGrid(MovingPointSet2D vertices) {
+		this(vertices, (int) Math.ceil(Math.sqrt(vertices.getsize())));
+	}
+
+	public SegmentGrid(MovingPointSet2D vertices, int cellsPerSide) {
+		this.cellsPerSide = Math.max(1, cellsPerSide);
+		this.xCoords = vertices.getxCoords();
+		this.yCoords = vertices.getyCoords();
+
+		int maxX = Integer.MIN_VALUE;
+		int maxY = Integer.MIN_VALUE;
+		this.minX = Integer.MAX_VALUE;
+		this.minY = Integer.MAX_VALUE;
+		for (int i = 0; i < vertices.getsize(); i++) {
+			this.minX = Math.min(this.minX, this.xCoords[i]);
+			this.minY = Math.min(this.minY, this.yCoords[i]);
+			maxX = Math.max(maxX, this.xCoords[i]);
+			maxY = Math.max(maxY, this.yCoords[i]);
+		}
+		this.spanX = (long) maxX - this.minX + 1;
+		this.spanY = (long) maxY - this.minY + 1;
+
+		this.cells = new Edge[this.cellsPerSide * this.cellsPerSide][];
+		this.cellSizes = new int[this.cells.length];
+		this.stamps = new int[vertices.getEdgePool().getEdgeCount()];
+		this.query = 0;
+		this.comparisons = 0;
+	}
+
+	//inserts the edge into every cell its bounding box overlaps
+	//(two crossing segments both cover the cell containing their crossing point)
+	public void add(Edge edge) {
+		int src = edge.getSrc();
+		int dest = edge.getDest();
+		int fromColumn = column(Math.min(this.xCoords[src], this.xCoords[dest]));
+		int toColumn = column(Math.max(this.xCoords[src], this.xCoords[dest]));
+		int fromRow = row(Math.min(this.yCoords[src], this.yCoords[dest]));
+		int toRow = row(Math.max(this.yCoords[src], this.yCoords[dest]));
+		for (int row = fromRow; row <= toRow; row++) {
+			for (int column = fromColumn; column <= toColumn; column++) {
+				int cell = row * this.cellsPerSide + column;
+				if (this.cells[cell] == null) {
+					this.cells[cell] = new Edge[4];
+				}
+				else if (this.cellSizes[cell] == this.cells[cell].length) {
+					Edge[] grown = new Edge[2 * this.cells[cell].length];
+					System.arraycopy(this.cells[cell], 0, grown, 0, this.cellSizes[cell]);
+					this.cells[cell] = grown;
+				}
+				this.cells[cell][this.cellSizes[cell]] = edge;
+				this.cellSizes[cell]++;
+			}
+		}
+	}
+
+	//returns true if the argument edge crosses an inserted edge, only edges sharing a cell with it are compared
+	public boolean isCrossing(Edge edge) {
+		this.query++;
+		int ax = this.xCoords[edge.getSrc()];
+		int ay = this.yCoords[edge.getSrc()];
+		int bx = this.xCoords[edge.getDest()];
+		int by = this.yCoords[edge.getDest()];
+		int fromColumn = column(Math.min(ax, bx));
+		int toColumn = column(Math.max(ax, bx));
+		int fromRow = row(Math.min(ay, by));
+		int toRow = row(Math.max(ay, by));
+		for (int row = fromRow; row <= toRow; row++) {
+			for (int column = fromColumn; column <= toColumn; column++) {
+				int cell = row * this.cellsPerSide + column;
+				for (int i = 0; i < this.cellSizes[cell]; i++) {
+					Edge other = this.cells[cell][i];
+					if (this.stamps[other.getId()] == this.query) {
+						continue;
+					}
+					this.stamps[other.getId()] = this.query;
+					this.comparisons++;
+					if (LineSegment.isCrossing(ax, ay, bx, by,
+							this.xCoords[other.getSrc()], this.yCoords[other.getSrc()], this.xCoords[other.getDest()], this.yCoords[other.getDest()])) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private int column(int x) {
+		return (int) ((long) (x - this.minX) * this.cellsPerSide / this.spanX);
+	}
+
+	private int row(int y) {
+		return (int) ((long) (y - this.minY) * this.cellsPerSide / this.spanY);
+	}
+
+	//returns the number of edges compared with a query edge so far
+	public int getComparisons() {
+		return this.comparisons;
+	}
+
+}
@@ -0,0 +1,142 @@
+package drawings;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+public class TranspositionTable {
+
+	//maximum number of stored subproblems, the least recently used one is evicted beyond that
+	private int capacity;
+
+	//entries by fingerprint, in access order
+	private LinkedHashMap<Long, Entry> entries;
+
+	//random keys of every edge id for the chosen, deleted and candidate edges of a subproblem,
+	//for the fingerprint and an independent check value that guards against fingerprint collisions
+	private long[] chosenKeys;
+	private long[] deletedKeys;
+	private long[] candidateKeys;
+	private long[] chosenChecks;
+	private long[] deletedChecks;
+	private long[] candidateChecks;
+
+	//statistical data
+	private int lookups;
+	private int hits;
+	private int evictions;
+
+	//result of a searched subproblem
+	static class Entry {
+		long check;
+
+		//true if weight is the weight of the lightest completion, false if it is only a lower bound for it
+		boolean exact;
+		double weight;
+
+		//lightest completion if exact, null if there is none
+		LinkedList<Edge> tree;
+	}
+
+	public TranspositionTable(int capacity, int edgeCount) {
+		this.capacity = capacity;
+		this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, TranspositionTable.Entry> eldest) {
+				if (size() > TranspositionTable.this.capacity) {
+					TranspositionTable.this.evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+
+		//fixed seed, so searches with a table are reproducible
+		long seed = 0x2545F4914F6CDD1DL;
+		this.chosenKeys = new long[edgeCount];
+		this.deletedKeys = new long[edgeCount];
+		this.candidateKeys = new long[edgeCount];
+		this.chosenChecks = new long[edgeCount];
+		this.deletedChecks = new long[edgeCount];
+		this.candidateChecks = new long[edgeCount];
+		for (int id = 0; id < edgeCount; id++) {
+			this.chosenKeys[id] = mix(seed += 0x9E3779B97F4A7C15L);
+			this.deletedKeys[id] = mix(seed += 0x9E3779B97F4A7C15L);
+			this.candidateKeys[id] = mix(seed += 0x9E3779B97F4A7C15L);
+			this.chosenChecks[id] = mix(seed += 0x9E3779B97F4A7C15L);
+			this.deletedChecks[id] = mix(seed += 0x9E3779B97F4A7C15L);
+			this.candidateChecks[id] = mix(seed += 0x9E3779B97F4A7C15L);
+		}
+	}
+
+	//returns the entry of the subproblem with the given fingerprint, or null if it isn't stored
+	Entry get(long fingerprint, long check) {
+		this.lookups++;
+		Entry entry = this.entries.get(fingerprint);
+		if (entry == null || entry.check != check) {
+			return null;
+		}
+		this.hits++;
+		return entry;
+	}
+
+	//stores the result of the subproblem with the given fingerprint
+	void put(long fingerprint, long check, boolean exact, double weight, LinkedList<Edge> tree) {
+		Entry entry = new Entry();
+		entry.check = check;
+		entry.exact = exact;
+		entry.weight = weight;
+		entry.tree = tree;
+		this.entries.put(fingerprint, entry);
+	}
+
+	//the fingerprint of a subproblem is the xor of the keys of its edges, so it can be updated edge by edge
+
+	long chosenKey(int id) {
+		return this.chosenKeys[id];
+	}
+
+	long deletedKey(int id) {
+		return this.deletedKeys[id];
+	}
+
+	long candidateKey(int id) {
+		return this.candidateKeys[id];
+	}
+
+	long chosenCheck(int id) {
+		return this.chosenChecks[id];
+	}
+
+	long deletedCheck(int id) {
+		return this.deletedChecks[id];
+	}
+
+	long candidateCheck(int id) {
+		return this.candidateChecks[id];
+	}
+
+	//SplitMix64 finalizer
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	public int getCapacity() {
+		return this.capacity;
+	}
+
+	public int getLookups() {
+		return this.lookups;
+	}
+
+	public int getHits() {
+		return this.hits;
+	}
+
+	public int getEvictions() {
+		return this.evictions;
+	}
+
+}
@@ -0,0 +1,589 @@
+package drawings;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import util.SolverProgress;
+
+public class TreeSearch {
+
+	//phases of a search frame
+	private static final int SEARCHING = 0;
+	private static final int WITHOUT_EDGE = 1;
+	private static final int WITH_EDGE = 2;
+
+	//number of searched nodes after which a pruning search publishes its progress
+	private static final int PROGRESS_INTERVAL = 4096;
+
+	//number of searched nodes after which the deadline is checked again (it is checked at the first node)
+	private static final int DEADLINE_INTERVAL = 256;
+
+	private int size;
+	private EdgePool pool;
+	private CrossingMatrix crossings;
+
+	//should recursions that can't beat the best tree be pruned (branch-and-bound) or should every planar tree be searched (brute force)?
+	private boolean pruning;
+	private boolean relaxationBound;
+
+	//the i-th union belongs to the i-th edge of the tree of the innermost frame
+	private UnionFind unionFind;
+
+	//bitset over edge ids of the tree of the innermost frame
+	private long[] chosen;
+
+	//scratch bitset of the edges an alternative tree may not use as candidates
+	private long[] excluded;
+
+	//results of searched subproblems, null if subproblems aren't memoized
+	private TranspositionTable table;
+
+	//System.nanoTime() after which the search gives up, only if hasDeadline
+	private boolean hasDeadline;
+	private long deadline;
+	private boolean timedOut;
+
+	//fingerprint and check value of the chosen edges for the table
+	private long chosenFingerprint;
+	private long chosenCheck;
+
+	//explicit search stack, frames are kept and reused once they were allocated
+	private Frame[] frames;
+	private int depth;
+
+	//tree returned by the frame finished last
+	private LinkedList<Edge> result;
+
+	//statistical data
+	private int edgesVisited;
+	private int comparisonsCrossingCriterion;
+	private long nodes;
+	private long pruned;
+
+	//nodes and pruned nodes already published to the solver progress
+	private long publishedNodes;
+	private long publishedPruned;
+
+	//state of one branching of the search: a partial tree that is extended greedily until an edge crosses it,
+	//after which the frame waits for the searches without and with that edge
+	//(edge sets are bitsets over edge ids, the ones a frame owns are allocated once and reused with the frame)
+	private static class Frame {
+		List<Edge> tree;
+		double treeWeight;
+		CandidateList candidates;
+		long[] deletedEdges;
+		double lowerBound;
+
+		//tree weight plus the relaxed completion weight, NaN until it is first needed
+		//(the greedy extension of a frame adds exactly the edges Kruskal's algorithm would take first on the contracted tree,
+		//so the sum stays the same until the frame branches and only has to be computed once per frame)
+		double relaxedWeight;
+
+		//subproblem of the frame in the transposition table, and the bound it was entered with
+		long deletedFingerprint;
+		long deletedCheck;
+		long fingerprint;
+		long check;
+		double entryBound;
+		boolean cached;
+
+		//size of the tree when the frame was entered, the frame removes its own edges again when it is finished
+		int entrySize;
+		int phase;
+
+		//alternative tree containing the crossing edge, prepared when the frame branches
+		//(the alternative tree and its candidates are owned by the frame and refilled in place whenever it branches)
+		Edge branchEdge;
+		int firstCrossing;
+		long[] crossingEdges;
+		ArrayList<Edge> alternative;
+		double alternativeWeight;
+		CandidateList alternativeCandidates;
+		long[] alternativeDeleted;
+		long alternativeDeletedFingerprint;
+		long alternativeDeletedCheck;
+		boolean alternativeForked;
+
+		LinkedList<Edge> treeWithoutEdge;
+		double weightWithoutEdge;
+	}
+
+	public TreeSearch(MovingPointSet2D vertices, boolean pruning, boolean relaxationBound) {
+		this.size = vertices.getsize();
+		this.pool = vertices.getEdgePool();
+		this.crossings = vertices.getCrossingMatrix();
+		this.pruning = pruning;
+		this.relaxationBound = relaxationBound;
+		this.unionFind = new UnionFind(this.size);
+		this.chosen = new long[this.pool.getWords()];
+		this.excluded = new long[this.pool.getWords()];
+		this.frames = new Frame[16];
+		this.depth = 0;
+	}
+
+	//returns the lightest planar spanning tree extending the argument tree with the candidates, or null if there is none
+	//(or none lighter than lowerBound when pruning), the tree is restored when the search returns
+	//deletedEdges is a bitset over edge ids (with getWords() of the pool entries) of edges that alternative trees must not use
+	public LinkedList<Edge> search(LinkedList<Edge> tree, double treeWeight, CandidateList candidates, long[] deletedEdges, double lowerBound) {
+		this.unionFind.clear();
+		uniteFrom(tree, 0, this.unionFind);
+		for (int w = 0; w < this.chosen.length; w++) {
+			this.chosen[w] = 0;
+		}
+		this.chosenFingerprint = 0;
+		this.chosenCheck = 0;
+		for (Edge edge : tree) {
+			choose(edge.getId());
+		}
+		long deletedFingerprint = 0;
+		long deletedCheck = 0;
+		if (this.table != null) {
+			for (int id = 0; id < this.pool.getEdgeCount(); id++) {
+				if (contains(deletedEdges, id)) {
+					deletedFingerprint ^= this.table.deletedKey(id);
+					deletedCheck ^= this.table.deletedCheck(id);
+				}
+			}
+		}
+		this.depth = 0;
+		this.result = null;
+		this.timedOut = false;
+		push(tree, treeWeight, candidates, deletedEdges, deletedFingerprint, deletedCheck, lowerBound);
+
+		while (this.depth > 0 && !this.timedOut) {
+			Frame frame = this.frames[this.depth - 1];
+			if (frame.phase == SEARCHING) {
+				extend(frame);
+			}
+			else if (frame.phase == WITHOUT_EDGE) {
+				withoutEdgeSearched(frame);
+			}
+			else {
+				withEdgeSearched(frame);
+			}
+		}
+		publishProgress();
+		if (this.timedOut) {
+			//the frames of the abandoned search are left as they are, the argument tree is not restored
+			this.depth = 0;
+			this.result = null;
+		}
+		return this.result;
+	}
+
+	//adds candidates to the tree of the frame until it is complete, can't be completed or an edge crosses it
+	private void extend(Frame frame) {
+		while (true) {
+			int missingEdges = (this.size-1)-frame.tree.size();
+			//if ST is complete
+			if (missingEdges == 0) {
+				//trees that can't beat the bound are pruned before they are completed
+				if (this.pruning && SolverProgress.isEnabled()) {
+					publishIncumbent(frame.treeWeight);
+				}
+				finish(frame, completed(frame.tree, frame.treeWeight));
+				return;
+			}
+
+			if (this.pruning) {
+				// if not enough edges left
+				if (frame.candidates.size() < missingEdges) {
+					this.pruned++;
+					finish(frame, null);
+					return;
+				}
+
+				//prune searches that can't beat the current optimum
+				double bound = bound(frame.lowerBound);
+				if (frame.treeWeight + frame.candidates.cheapestWeight(missingEdges) >= bound) {
+					this.pruned++;
+					finish(frame, null);
+					return;
+				}
+				if (this.relaxationBound) {
+					if (Double.isNaN(frame.relaxedWeight)) {
+						frame.relaxedWeight = frame.treeWeight + relaxedCompletionWeight(frame.candidates, this.unionFind, missingEdges);
+					}
+					if (frame.relaxedWeight >= bound) {
+						this.pruned++;
+						finish(frame, null);
+						return;
+					}
+				}
+			}
+			else if (frame.candidates.size() <= 0) {
+				System.out.println("Ran out of edges during recursion");
+				finish(frame, null);
+				return;
+			}
+
+			this.edgesVisited++;
+
+			Edge nextEdge = frame.candidates.removeFirst();
+
+			if (this.unionFind.connected(nextEdge.getSrc(), nextEdge.getDest())) {
+				continue;
+			}
+
+			if (isCrossing(nextEdge, frame.tree)) {
+				branch(frame, nextEdge, missingEdges);
+				return;
+			}
+
+			frame.tree.add(nextEdge);
+			choose(nextEdge.getId());
+			this.unionFind.union(nextEdge.getSrc(), nextEdge.getDest());
+			frame.treeWeight += nextEdge.getWeight();
+		}
+	}
+
+	//prepares the alternative tree containing the crossing edge and starts the search without the edge
+	private void branch(Frame frame, Edge nextEdge, int missingEdges) {
+		frame.branchEdge = nextEdge;
+		long[] crossing = frame.crossingEdges;
+		this.crossings.crossingEdges(nextEdge.getId(), this.chosen, crossing);
+
+		//remove crossing edges from alternative tree containing the edge
+		if (frame.alternative == null) {
+			frame.alternative = new ArrayList<Edge>(this.size - 1);
+		}
+		frame.alternative.clear();
+		frame.alternativeWeight = 0;
+		frame.firstCrossing = -1;
+		int position = 0;
+		for (Edge other : frame.tree) {
+			if (contains(crossing, other.getId())) {
+				if (frame.firstCrossing < 0) {
+					frame.firstCrossing = position;
+				}
+			}
+			else {
+				frame.alternative.add(other);
+				frame.alternativeWeight += other.getWeight();
+			}
+			position++;
+		}
+		frame.alternative.add(nextEdge);
+		frame.alternativeWeight += nextEdge.getWeight();
+
+		//recalculate viable candidate edges for alternative tree: neither in the alternative tree nor deleted,
+		//which are the edges of the tree, the crossing edge and all deleted edges
+		for (int w = 0; w < crossing.length; w++) {
+			frame.alternativeDeleted[w] = frame.deletedEdges[w] | crossing[w];
+			this.excluded[w] = this.chosen[w] | frame.deletedEdges[w];
+		}
+		frame.alternativeDeletedFingerprint = frame.deletedFingerprint;
+		frame.alternativeDeletedCheck = frame.deletedCheck;
+		if (this.table != null) {
+			//crossing edges are chosen, so they haven't been deleted before
+			for (Edge other : frame.tree) {
+				if (contains(crossing, other.getId())) {
+					frame.alternativeDeletedFingerprint ^= this.table.deletedKey(other.getId());
+					frame.alternativeDeletedCheck ^= this.table.deletedCheck(other.getId());
+				}
+			}
+		}
+		set(this.excluded, nextEdge.getId());
+		if (frame.alternativeCandidates == null) {
+			frame.alternativeCandidates = new CandidateList(this.pool, this.excluded);
+		}
+		else {
+			frame.alternativeCandidates.refill(this.pool, this.excluded);
+		}
+
+		frame.alternativeForked = forkAlternative(frame.alternative, frame.alternativeWeight, frame.alternativeCandidates, frame.alternativeDeleted, missingEdges);
+		frame.phase = WITHOUT_EDGE;
+		push(frame.tree, frame.treeWeight, frame.candidates, frame.deletedEdges, frame.deletedFingerprint, frame.deletedCheck, frame.lowerBound);
+	}
+
+	//continues a frame after the search without the crossing edge, the tree and unionFind are in the state of the branching
+	private void withoutEdgeSearched(Frame frame) {
+		frame.treeWithoutEdge = this.result;
+		frame.weightWithoutEdge = weight(this.result);
+		if (this.pruning) {
+			frame.lowerBound = Math.min(frame.lowerBound, frame.weightWithoutEdge);
+		}
+		if (frame.alternativeForked) {
+			finish(frame, frame.treeWithoutEdge);
+			return;
+		}
+
+		//roll unionFind back to the first removed edge and add the remaining edges of the alternative tree
+		this.unionFind.rollback(frame.firstCrossing);
+		uniteFrom(frame.alternative, frame.firstCrossing, this.unionFind);
+		for (Edge other : frame.tree) {
+			if (contains(frame.crossingEdges, other.getId())) {
+				unchoose(other.getId());
+			}
+		}
+		choose(frame.branchEdge.getId());
+
+		frame.phase = WITH_EDGE;
+		push(frame.alternative, frame.alternativeWeight, frame.alternativeCandidates, frame.alternativeDeleted,
+				frame.alternativeDeletedFingerprint, frame.alternativeDeletedCheck, frame.lowerBound);
+	}
+
+	//finishes a frame after the search with the crossing edge by choosing the lighter of both trees
+	private void withEdgeSearched(Frame frame) {
+		//restore unionFind and the chosen edges for the tree of the frame
+		this.unionFind.rollback(frame.firstCrossing);
+		uniteFrom(frame.tree, frame.firstCrossing, this.unionFind);
+		unchoose(frame.branchEdge.getId());
+		for (Edge other : frame.tree) {
+			if (contains(frame.crossingEdges, other.getId())) {
+				choose(other.getId());
+			}
+		}
+
+		if (frame.weightWithoutEdge <= weight(this.result)) {
+			finish(frame, frame.treeWithoutEdge);
+		}
+		else {
+			finish(frame, this.result);
+		}
+	}
+
+	//removes the edges the frame added to its tree and hands the argument tree to the frame below
+	private void finish(Frame frame, LinkedList<Edge> tree) {
+		while (frame.tree.size() > frame.entrySize) {
+			unchoose(frame.tree.remove(frame.tree.size() - 1).getId());
+		}
+		this.unionFind.rollback(frame.entrySize);
+
+		if (this.table != null && !frame.cached) {
+			//parts of the subproblem were only pruned if they can't beat the bound, so a lighter tree is the lightest completion,
+			//and without one the bound is a lower bound for every completion
+			double weight = weight(tree);
+			double bound = this.pruning ? bound(frame.entryBound) : Double.MAX_VALUE;
+			if (!this.pruning || weight < bound) {
+				this.table.put(frame.fingerprint, frame.check, true, weight, tree);
+			}
+			else {
+				this.table.put(frame.fingerprint, frame.check, false, bound, null);
+			}
+		}
+
+		//don't keep the lists of finished frames alive, except for the ones the frame owns
+		frame.tree = null;
+		frame.candidates = null;
+		frame.deletedEdges = null;
+		frame.branchEdge = null;
+		frame.treeWithoutEdge = null;
+
+		this.depth--;
+		this.result = tree;
+	}
+
+	private void push(List<Edge> tree, double treeWeight, CandidateList candidates, long[] deletedEdges, long deletedFingerprint, long deletedCheck, double lowerBound) {
+		if (this.depth == this.frames.length) {
+			Frame[] frames = new Frame[2 * this.frames.length];
+			System.arraycopy(this.frames, 0, frames, 0, this.frames.length);
+			this.frames = frames;
+		}
+		if (this.frames[this.depth] == null) {
+			this.frames[this.depth] = new Frame();
+			this.frames[this.depth].crossingEdges = new long[this.pool.getWords()];
+			this.frames[this.depth].alternativeDeleted = new long[this.pool.getWords()];
+		}
+		Frame frame = this.frames[this.depth];
+		frame.tree = tree;
+		frame.treeWeight = treeWeight;
+		frame.candidates = candidates;
+		frame.deletedEdges = deletedEdges;
+		frame.deletedFingerprint = deletedFingerprint;
+		frame.deletedCheck = deletedCheck;
+		frame.lowerBound = lowerBound;
+		frame.relaxedWeight = Double.NaN;
+		frame.entryBound = lowerBound;
+		frame.entrySize = tree.size();
+		frame.phase = SEARCHING;
+		frame.alternativeForked = false;
+		frame.cached = false;
+		this.depth++;
+		this.nodes++;
+		if (this.nodes % PROGRESS_INTERVAL == 0) {
+			publishProgress();
+		}
+		if (this.hasDeadline && this.nodes % DEADLINE_INTERVAL == 1 && System.nanoTime() - this.deadline > 0) {
+			this.timedOut = true;
+		}
+
+		if (this.table != null) {
+			lookup(frame);
+		}
+	}
+
+	//finishes the frame right away if the table already holds the result of its subproblem
+	private void lookup(Frame frame) {
+		frame.fingerprint = this.chosenFingerprint ^ frame.deletedFingerprint ^ frame.candidates.candidateFingerprint(this.table);
+		frame.check = this.chosenCheck ^ frame.deletedCheck ^ frame.candidates.candidateCheck(this.table);
+
+		TranspositionTable.Entry entry = this.table.get(frame.fingerprint, frame.check);
+		if (entry == null) {
+			return;
+		}
+		double bound = this.pruning ? bound(frame.lowerBound) : Double.MAX_VALUE;
+		if (entry.exact && (!this.pruning || entry.weight < bound)) {
+			frame.cached = true;
+			finish(frame, entry.tree);
+		}
+		else if (this.pruning && entry.weight >= bound) {
+			frame.cached = true;
+			this.pruned++;
+			finish(frame, null);
+		}
+	}
+
+	//adds the nodes searched since the last call to the solver progress, if it is enabled and the search prunes
+	private void publishProgress() {
+		if (this.pruning && SolverProgress.isEnabled()) {
+			SolverProgress.addNodes(this.nodes - this.publishedNodes, this.pruned - this.publishedPruned);
+		}
+		this.publishedNodes = this.nodes;
+		this.publishedPruned = this.pruned;
+	}
+
+	//gives up searches that are still running when System.nanoTime() passes the argument deadline,
+	//they return null and isTimedOut() is true afterwards
+	public void setDeadline(long deadline) {
+		this.hasDeadline = true;
+		this.deadline = deadline;
+	}
+
+	//returns true if the last search gave up at the deadline
+	public boolean isTimedOut() {
+		return this.timedOut;
+	}
+
+	//memoizes searched subproblems in the argument table, null disables memoization (must be set before the search)
+	public void setTranspositionTable(TranspositionTable table) {
+		this.table = table;
+	}
+
+	//publishes the weight of a completed tree, which is lighter than the bound, to the solver progress
+	protected void publishIncumbent(double weight) {
+		SolverProgress.setIncumbentWeight(weight);
+	}
+
+	//returns the bound a partial tree has to stay below, given the bound handed down the search
+	protected double bound(double lowerBound) {
+		return lowerBound;
+	}
+
+	//returns the tree the search continues with once the argument tree is complete
+	protected LinkedList<Edge> completed(List<Edge> tree, double treeWeight) {
+		//tree changes again during backtracking
+		return new LinkedList<Edge>(tree);
+	}
+
+	//returns true if the alternative tree of a branching is searched elsewhere, so the search only continues without the crossing edge
+	//(alternative, candidates and deletedEdges are reused by the search afterwards and have to be copied to be kept)
+	protected boolean forkAlternative(List<Edge> alternative, double alternativeWeight, CandidateList candidates, long[] deletedEdges, int missingEdges) {
+		return false;
+	}
+
+	//returns the total weight of the argument tree, Double.MAX_VALUE if there is none
+	private static double weight(LinkedList<Edge> tree) {
+		if (tree == null) {
+			return Double.MAX_VALUE;
+		}
+		double weight = 0;
+		for (Edge edge : tree) {
+			weight += edge.getWeight();
+		}
+		return weight;
+	}
+
+	//returns true if argument edge crosses an edge in argument edgeList
+	private boolean isCrossing(Edge edge, List<Edge> edgeList) {
+		for (Edge other : edgeList) {
+			this.comparisonsCrossingCriterion++;
+			if (this.crossings.isCrossing(edge, other)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	//returns the weight of the cheapest edges among the candidates that complete the tree in unionFind to a spanning tree if crossings are ignored
+	//(Kruskal's algorithm on the contracted tree), Double.MAX_VALUE if the candidates can't complete it
+	static double relaxedCompletionWeight(CandidateList candidates, UnionFind unionFind, int missingEdges) {
+		int checkpoint = unionFind.checkpoint();
+		double weight = 0;
+		int added = 0;
+		for (int i = 0; i < candidates.size() && added < missingEdges; i++) {
+			Edge edge = candidates.get(i);
+			if (unionFind.union(edge.getSrc(), edge.getDest())) {
+				weight += edge.getWeight();
+				added++;
+			}
+		}
+		unionFind.rollback(checkpoint);
+		if (added < missingEdges) {
+			return Double.MAX_VALUE;
+		}
+		return weight;
+	}
+
+	//unites the endpoints of all tree edges starting at the given position
+	static void uniteFrom(List<Edge> tree, int from, UnionFind unionFind) {
+		Iterator<Edge> edges = tree.listIterator(from);
+		while (edges.hasNext()) {
+			Edge edge = edges.next();
+			if (!unionFind.union(edge.getSrc(), edge.getDest())) {
+				System.out.println("Something went horribly wrong");
+			}
+		}
+	}
+
+	//adds the edge with the given id to the chosen edges
+	private void choose(int id) {
+		set(this.chosen, id);
+		if (this.table != null) {
+			this.chosenFingerprint ^= this.table.chosenKey(id);
+			this.chosenCheck ^= this.table.chosenCheck(id);
+		}
+	}
+
+	//removes the edge with the given id from the chosen edges
+	private void unchoose(int id) {
+		clear(this.chosen, id);
+		if (this.table != null) {
+			this.chosenFingerprint ^= this.table.chosenKey(id);
+			this.chosenCheck ^= this.table.chosenCheck(id);
+		}
+	}
+
+	private static void set(long[] edgeSet, int id) {
+		edgeSet[id >>> 6] |= (1L << id);
+	}
+
+	private static void clear(long[] edgeSet, int id) {
+		edgeSet[id >>> 6] &= ~(1L << id);
+	}
+
+	private static boolean contains(long[] edgeSet, int id) {
+		return (edgeSet[id >>> 6] & (1L << id)) != 0;
+	}
+
+	public int getEdgesVisited() {
+		return this.edgesVisited;
+	}
+
+	public int getComparisonsCrossingCriterion() {
+		return this.comparisonsCrossingCriterion;
+	}
+
+	//returns the number of search nodes (frames) entered so far
+	public long getNodes() {
+		return this.nodes;
+	}
+
+	//returns the number of search nodes that were cut off by the bound or for lack of candidates so far
+	public long getPruned() {
+		return this.pruned;
+	}
+
+}
@@ -0,0 +1,90 @@
+package drawings;
+
+public class UnionFind {
+
+	private int[] parents;
+	private int[] ranks;
+
+	//undo stack: the root attached by each union and whether the rank of its new parent grew
+	private int[] attachedRoots;
+	private boolean[] rankIncreased;
+	private int unions;
+
+	public UnionFind(int size) {
+		this.parents = new int[size];
+		this.ranks = new int[size];
+		//a forest on size elements can't contain more than size-1 unions
+		this.attachedRoots = new int[Math.max(size - 1, 0)];
+		this.rankIncreased = new boolean[Math.max(size - 1, 0)];
+		this.clear();
+	}
+
+	//returns the representative of the set containing the element
+	//(no path compression, so that unions can be undone in constant time)
+	public int find(int element) {
+		while (this.parents[element] != -1) {
+			element = this.parents[element];
+		}
+		return element;
+	}
+
+	//merges the sets containing the arguments, returns false if they already are in the same set
+	public boolean union(int a, int b) {
+		int rep1 = find(a);
+		int rep2 = find(b);
+		if (rep1 == rep2) {
+			return false;
+		}
+		//union by rank keeps the trees logarithmic in height
+		if (this.ranks[rep1] > this.ranks[rep2]) {
+			int temp = rep1;
+			rep1 = rep2;
+			rep2 = temp;
+		}
+		this.parents[rep1] = rep2;
+		this.attachedRoots[this.unions] = rep1;
+		this.rankIncreased[this.unions] = this.ranks[rep1] == this.ranks[rep2];
+		if (this.rankIncreased[this.unions]) {
+			this.ranks[rep2]++;
+		}
+		this.unions++;
+		return true;
+	}
+
+	//returns true if both arguments are in the same set
+	public boolean connected(int a, int b) {
+		return find(a) == find(b);
+	}
+
+	//returns a checkpoint that the structure can be rolled back to later
+	public int checkpoint() {
+		return this.unions;
+	}
+
+	//undoes all unions performed since the argument checkpoint was taken
+	public void rollback(int checkpoint) {
+		while (this.unions > checkpoint) {
+			this.unions--;
+			int root = this.attachedRoots[this.unions];
+			if (this.rankIncreased[this.unions]) {
+				this.ranks[this.parents[root]]--;
+			}
+			this.parents[root] = -1;
+		}
+	}
+
+	//separates all elements into singleton sets
+	public void clear() {
+		for (int i = 0; i < this.parents.length; i++) {
+			this.parents[i] = -1;
+			this.ranks[i] = 0;
+		}
+		this.unions = 0;
+	}
+
+	//returns the number of unions currently in effect
+	public int getUnions() {
+		return this.unions;
+	}
+
+}
@@ -0,0 +1,165 @@
+package main;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+//parameters of an experiment run, read from a properties file and/or command line options of the form --key=value or --key value
+//(command line options override the file given with --config)
+//
+//keys:
+//  seed          master seed, every sample derives its own seed from it (default 13052021)
+//  samples       samples per pointset size (default 1000)
+//  n             pointset sizes, a list like 10,20,30 or a range from:to:step like 10:60:10 (default 30)
+//  algorithms    algorithms to run, a list of the names in ALGORITHMS (default all but those in EXPLICIT_ONLY)
+//  budget.<alg>  time budget in ms for all samples of one pointset size, if it runs out (also in the middle of a
+//                sample of the exact algorithms) the algorithm stops and skips all larger sizes (default 0, unlimited)
+//  maxN.<alg>    largest pointset size the algorithm runs on (default unlimited)
+//  threads       number of (pointset size, algorithm) jobs running in parallel, and parallelism of the pool
+//                parallelBranchAndBound searches its subtrees on (default number of processors)
+//  output        directory the results of every job are written to (default results)
+//  transpositionTableSize, relaxationBound, warmStart   options of the exact algorithms
+//  profile       should the phases of the algorithms be timed and summarized at the end? (default false,
+//                a Flight Recorder recording additionally receives a mobilemst.Phase event per timed phase)
+public class ExperimentConfig {
+
+	public static final List<String> ALGORITHMS = Arrays.asList(
+			"kruskal", "crossingStableMST", "movingKruskal", "optimalSlow", "branchAndBound", "parallelBranchAndBound", "yMonotonePath",
+			"delaunayKruskal", "kineticTree");
+
+	//algorithms only run if they are named in the algorithms option
+	//(parallelBranchAndBound would compete with the other jobs for the processors, kineticTree follows the tree over the
+	//whole movement and additionally writes the change times and tree sizes of every sample)
+	public static final List<String> EXPLICIT_ONLY = Arrays.asList("parallelBranchAndBound", "delaunayKruskal", "kineticTree");
+
+	private Properties properties;
+
+	public ExperimentConfig(Properties properties) {
+		this.properties = properties;
+		for(String algorithm : getAlgorithms()) {
+			if(!ALGORITHMS.contains(algorithm)) {
+				throw new IllegalArgumentException("Unknown algorithm " + algorithm + ", choose from " + ALGORITHMS);
+			}
+		}
+	}
+
+	public static ExperimentConfig parse(String[] args) throws IOException {
+		Properties options = new Properties();
+		String file = null;
+		for(int i = 0; i < args.length; i++) {
+			if(!args[i].startsWith("--")) {
+				throw new IllegalArgumentException("Expected an option starting with --, found " + args[i]);
+			}
+			String key = args[i].substring(2);
+			String value;
+			int equals = key.indexOf('=');
+			if(equals >= 0) {
+				value = key.substring(equals + 1);
+				key = key.substring(0, equals);
+			}
+			else if(i + 1 < args.length) {
+				value = args[++i];
+			}
+			else {
+				throw new IllegalArgumentException("Missing value of option --" + key);
+			}
+			if(key.equals("config")) {
+				file = value;
+			}
+			else {
+				options.setProperty(key, value);
+			}
+		}
+
+		Properties properties = new Properties();
+		if(file != null) {
+			try(InputStream in = new FileInputStream(file)) {
+				properties.load(in);
+			}
+		}
+		properties.putAll(options);
+		return new ExperimentConfig(properties);
+	}
+
+	public long getSeed() {
+		return Long.parseLong(this.properties.getProperty("seed", "13052021"));
+	}
+
+	public int getSamples() {
+		return Integer.parseInt(this.properties.getProperty("samples", "1000"));
+	}
+
+	public int[] getPointsetSizes() {
+		String sizes = this.properties.getProperty("n", "30");
+		if(sizes.contains(":")) {
+			String[] range = sizes.split(":");
+			int from = Integer.parseInt(range[0].trim());
+			int to = Integer.parseInt(range[1].trim());
+			int step = range.length > 2 ? Integer.parseInt(range[2].trim()) : 1;
+			if(step <= 0) {
+				throw new IllegalArgumentException("The step of the range " + sizes + " must be positive");
+			}
+			List<Integer> values = new ArrayList<Integer>();
+			for(int n = from; n <= to; n += step) {
+				values.add(n);
+			}
+			return values.stream().mapToInt(Integer::intValue).toArray();
+		}
+		return Arrays.stream(sizes.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+	}
+
+	public List<String> getAlgorithms() {
+		String algorithms = this.properties.getProperty("algorithms");
+		List<String> selected = new ArrayList<String>();
+		if(algorithms == null) {
+			for(String algorithm : ALGORITHMS) {
+				if(!EXPLICIT_ONLY.contains(algorithm)) {
+					selected.add(algorithm);
+				}
+			}
+			return selected;
+		}
+		for(String algorithm : algorithms.split(",")) {
+			selected.add(algorithm.trim());
+		}
+		return selected;
+	}
+
+	//time budget in nanoseconds for all samples of one pointset size, 0 if unlimited
+	public long getBudgetNanos(String algorithm) {
+		return Long.parseLong(this.properties.getProperty("budget." + algorithm, "0")) * 1000000L;
+	}
+
+	public int getMaxPointsetSize(String algorithm) {
+		return Integer.parseInt(this.properties.getProperty("maxN." + algorithm, String.valueOf(Integer.MAX_VALUE)));
+	}
+
+	public int getThreads() {
+		return Integer.parseInt(this.properties.getProperty("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+	}
+
+	public String getOutput() {
+		return this.properties.getProperty("output", "results");
+	}
+
+	public int getTranspositionTableSize() {
+		return Integer.parseInt(this.properties.getProperty("transpositionTableSize", "0"));
+	}
+
+	public boolean getRelaxationBound() {
+		return Boolean.parseBoolean(this.properties.getProperty("relaxationBound", "false"));
+	}
+
+	public boolean getWarmStart() {
+		return Boolean.parseBoolean(this.properties.getProperty("warmStart", "true"));
+	}
+
+	public boolean getProfile() {
+		return Boolean.parseBoolean(this.properties.getProperty("profile", "false"));
+	}
+
+}
@@ -0,0 +1,288 @@
+package main;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import drawings.Edge;
+import drawings.GraphDrawing;
+import drawings.KineticTree;
+import drawings.MovingPointSet2D;
+import util.Profiler;
+import util.SamplingMetrics;
+
+//runs every selected algorithm on every pointset size of an experiment configuration,
+//each (pointset size, algorithm) pair is a job sampling its pointsets on its own and writing them to its own file
+public class ExperimentRunner {
+
+	private ExperimentConfig config;
+
+	//smallest pointset size at which each algorithm ran out of its time budget, larger sizes are skipped
+	private ConcurrentHashMap<String, Integer> exhausted;
+
+	//throughput, latencies and solver progress of all jobs, registered over JMX while the experiment runs
+	private SamplingMetrics metrics;
+
+	//pool all jobs of parallelBranchAndBound search their subtrees on, created while the experiment runs
+	private ForkJoinPool searchPool;
+
+	public ExperimentRunner(ExperimentConfig config) {
+		this.config = config;
+		this.exhausted = new ConcurrentHashMap<String, Integer>();
+	}
+
+	//runs all jobs and prints a summary of every job once all of them have finished
+	public void run() throws IOException {
+		File output = new File(this.config.getOutput());
+		if(!output.isDirectory() && !output.mkdirs()) {
+			throw new IOException("Could not create output directory " + output);
+		}
+
+		//jobs are submitted by increasing pointset size, so a budget usually runs out before larger sizes are started
+		List<Job> jobs = new ArrayList<Job>();
+		for(int n : this.config.getPointsetSizes()) {
+			for(String algorithm : this.config.getAlgorithms()) {
+				jobs.add(new Job(n, algorithm));
+			}
+		}
+
+		if(this.config.getProfile()) {
+			Profiler.setEnabled(true);
+		}
+
+		this.metrics = new SamplingMetrics(jobs.size() * this.config.getSamples());
+		this.metrics.register();
+		ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, this.config.getThreads()));
+		this.searchPool = new ForkJoinPool(Math.max(1, this.config.getThreads()));
+		try {
+			List<Future<Job>> results = new ArrayList<Future<Job>>();
+			for(Job job : jobs) {
+				results.add(pool.submit(job::run));
+			}
+			for(Future<Job> result : results) {
+				try {
+					result.get();
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IOException("Interrupted while waiting for the experiment", e);
+				}
+				catch(ExecutionException e) {
+					if(e.getCause() instanceof IOException) {
+						throw (IOException) e.getCause();
+					}
+					throw new RuntimeException(e.getCause());
+				}
+			}
+		}
+		finally {
+			pool.shutdownNow();
+			this.searchPool.shutdownNow();
+			this.metrics.unregister();
+		}
+
+		System.out.println(String.format(Locale.ROOT, "%-22s %8s %8s %14s %14s  %s", "Algorithm", "n", "Samples", "Mean Weight", "Mean Time ms", "Status"));
+		for(Job job : jobs) {
+			System.out.println(String.format(Locale.ROOT, "%-22s %8d %8d %14.4f %14.4f  %s", job.algorithm, job.n, job.samples,
+					job.samples > 0 ? job.totalWeight / job.samples : Double.NaN,
+					job.samples > 0 ? job.totalNanos / 1e6 / job.samples : Double.NaN, job.status));
+		}
+		if(Profiler.isEnabled()) {
+			System.out.println();
+			Profiler.print(System.out);
+		}
+	}
+
+	//returns true if the algorithm already ran out of its budget at the argument pointset size or a smaller one
+	private boolean isExhausted(String algorithm, int n) {
+		Integer limit = this.exhausted.get(algorithm);
+		return limit != null && limit <= n;
+	}
+
+	//returns true if the algorithm needs its pointsets in general position, the Delaunay triangulation doesn't
+	private static boolean needsGeneralPosition(String algorithm) {
+		return !algorithm.equals("delaunayKruskal");
+	}
+
+	//runs the named algorithm on the argument drawing and returns the number of edges it considered
+	private int runAlgorithm(String algorithm, GraphDrawing drawing) {
+		switch(algorithm) {
+		case "kruskal":
+			return drawing.kruskal();
+		case "delaunayKruskal":
+			drawing.setDelaunayKruskal(true);
+			return drawing.kruskal();
+		case "crossingStableMST":
+			return drawing.crossingStableMST();
+		case "movingKruskal":
+			return drawing.movingKruskal();
+		case "optimalSlow":
+			return drawing.optimalSlow();
+		case "branchAndBound":
+			return drawing.branchAndBound();
+		case "parallelBranchAndBound":
+			return drawing.parallelBranchAndBound(this.searchPool);
+		case "yMonotonePath":
+			drawing.yMonotonePath();
+			return 0;
+		case "kineticTree":
+			return drawing.kineticTree();
+		default:
+			throw new IllegalArgumentException("Unknown algorithm " + algorithm);
+		}
+	}
+
+	//all samples of one algorithm at one pointset size
+	private class Job {
+
+		private int n;
+		private String algorithm;
+
+		//summary of the samples run so far
+		private int samples;
+		private double totalWeight;
+		private long totalNanos;
+		private String status;
+
+		Job(int n, String algorithm) {
+			this.n = n;
+			this.algorithm = algorithm;
+			this.status = "pending";
+		}
+
+		Job run() throws IOException {
+			int sampleSize = config.getSamples();
+			try {
+				return sample(sampleSize);
+			}
+			finally {
+				//samples that weren't run are no longer expected by the metrics
+				metrics.skip(sampleSize - this.samples);
+			}
+		}
+
+		private Job sample(int sampleSize) throws IOException {
+			if(this.n > config.getMaxPointsetSize(this.algorithm)) {
+				this.status = "skipped (maxN)";
+				return this;
+			}
+			if(isExhausted(this.algorithm, this.n)) {
+				this.status = "skipped (budget exhausted at n=" + exhausted.get(this.algorithm) + ")";
+				return this;
+			}
+
+			MovingPointSet2D pointset = new MovingPointSet2D(this.n);
+			boolean generalPosition = needsGeneralPosition(this.algorithm);
+			//general position gives every point its own integer y coordinate
+			int yValues = pointset.getyUpperBound() - pointset.getyLowerBound();
+			if(generalPosition && this.n > yValues) {
+				this.status = "rejected (general position needs n <= " + yValues + ")";
+				return this;
+			}
+
+			long budget = config.getBudgetNanos(this.algorithm);
+			long masterSeed = config.getSeed();
+			File file = new File(config.getOutput(), this.algorithm + "_n=" + this.n + ".csv");
+			//the kinetic tree additionally lists every change of the tree over the movement
+			File changesFile = this.algorithm.equals("kineticTree") ? new File(config.getOutput(), this.algorithm + "_n=" + this.n + "_changes.csv") : null;
+
+			this.status = "completed";
+			try(BufferedWriter writer = new BufferedWriter(new FileWriter(file));
+					BufferedWriter changes = changesFile != null ? new BufferedWriter(new FileWriter(changesFile)) : null) {
+				writer.write("Sample,Weight,Edges Considered,Crossing Comparisons,Time ns");
+				writer.newLine();
+				if(changes != null) {
+					changes.write("Sample,Change,Time,Tree Size,Weight");
+					changes.newLine();
+				}
+				StringBuilder row = new StringBuilder();
+				for(int i = 0; i < sampleSize; i++) {
+					//a larger job stops as soon as a smaller size of the same algorithm ran out of its budget
+					if(isExhausted(this.algorithm, this.n)) {
+						this.status = "aborted (budget exhausted at n=" + exhausted.get(this.algorithm) + ")";
+						break;
+					}
+					//same pointsets as the sampling engine draws for the same seed and pointset size
+					Random random = new Random(SamplingEngine.sampleSeed(masterSeed, i));
+					pointset.randomizeMovingPointSet(random);
+					if(generalPosition) {
+						pointset.enforceGeneralPosition(random);
+					}
+
+					GraphDrawing drawing = new GraphDrawing(pointset);
+					drawing.setTranspositionTableSize(config.getTranspositionTableSize());
+					drawing.setRelaxationBound(config.getRelaxationBound());
+					drawing.setWarmStart(config.getWarmStart());
+					long start = System.nanoTime();
+					if(budget > 0) {
+						//the exact algorithms give up in the middle of the sample once the rest of the budget runs out
+						drawing.setDeadline(start + budget - this.totalNanos);
+					}
+					int edgesConsidered = runAlgorithm(this.algorithm, drawing);
+					long nanos = System.nanoTime() - start;
+
+					if(drawing.isTimedOut()) {
+						//the incomplete sample isn't recorded
+						this.totalNanos += nanos;
+						exhausted.merge(this.algorithm, this.n, Math::min);
+						this.status = "budget exhausted during sample " + i + " after " + this.samples + " samples";
+						break;
+					}
+
+					double weight = drawing.getTotalWeight();
+					this.samples++;
+					this.totalWeight += weight;
+					this.totalNanos += nanos;
+					metrics.recordLatency(this.algorithm, nanos);
+					metrics.sampleCompleted();
+
+					row.setLength(0);
+					row.append(i).append(',').append(weight).append(',').append(edgesConsidered).append(',')
+							.append(drawing.getComparisonsCrossingCriterion()).append(',').append(nanos);
+					writer.append(row);
+					writer.newLine();
+					if(changes != null) {
+						writeChanges(changes, i, drawing.getKineticTree(), row);
+					}
+
+					if(budget > 0 && this.totalNanos > budget) {
+						exhausted.merge(this.algorithm, this.n, Math::min);
+						this.status = "budget exhausted after " + this.samples + " samples";
+						break;
+					}
+				}
+			}
+			return this;
+		}
+
+		//writes one row per tree of the kinetic tree of sample i, with the time it starts at, its size and weight
+		private void writeChanges(BufferedWriter changes, int i, KineticTree kinetic, StringBuilder row) throws IOException {
+			List<LinkedList<Edge>> trees = kinetic.getTrees();
+			List<Double> times = kinetic.getChangeTimes();
+			for(int change = 0; change < trees.size(); change++) {
+				double weight = 0;
+				for(Edge edge : trees.get(change)) {
+					weight += edge.getWeight();
+				}
+				row.setLength(0);
+				row.append(i).append(',').append(change).append(',').append(times.get(change)).append(',')
+						.append(trees.get(change).size()).append(',').append(weight);
+				changes.append(row);
+				changes.newLine();
+			}
+		}
+	}
+
+}
@@ -1,21 +1,29 @@
 package main;
 
-import java.io.FileNotFoundException;
-import java.util.Random;
+import java.io.IOException;
 
 import javax.swing.JFrame;
 
-import drawings.DebugGraphDrawing;
 import drawings.GraphDrawing;
-import drawings.MovingPointSet2D;
+import util.BinaryResultSink;
+import util.Checkpoint;
+import util.CsvResultSink;
 import util.Data;
+import util.Profiler;
+import util.ResultSink;
 
 
 
 public class Main {
 	
-	public static void main(String[] args) throws FileNotFoundException, NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
+	public static void main(String[] args) throws IOException, NoSuchFieldException, SecurityException, IllegalArgumentException, IllegalAccessException {
 	
+		//with arguments the experiment is configured on the command line and/or in a properties file instead of the flags below
+		//(e.g. --config sweep.properties --n 10:60:10 --algorithms kruskal,branchAndBound --budget.branchAndBound 600000, see ExperimentConfig)
+		if(args.length > 0) {
+			new ExperimentRunner(ExperimentConfig.parse(args)).run();
+			return;
+		}
 
 		//////////////////////////////////////////////////////////////////////////////////////////////////
 		                                 //Should statistical evaluation be performed?
@@ -37,24 +45,67 @@ public class Main {
 		                    			 //What should the pointset size n be sat as?
 		                    			 int pointsetSize = 30;
 		                    			 
+		                    			 //Should Branch-and-Bound also run without the Moving Kruskal tree as starting incumbent for comparison?
+		                    			 boolean compareWarmStart = false;
+		                    			 
+		                    			 //How many subproblems should the exact algorithms memoize per sample? (0 disables memoization)
+		                    			 int transpositionTableSize = 0;
+		                    			 
+		                    			 //How many threads should sample in parallel?
+		                    			 int parallelism = Runtime.getRuntime().availableProcessors();
+		                    			 
+		                    			 //Should mean, variance and quantiles of every metric be aggregated while sampling and printed at the end?
+		                    			 //(without a file no samples are kept at all, so memory does not grow with the sample size)
+		                    			 boolean onlineStatistics = false;
+		                    			 
 		                    			 //Should statistical data be saved to a file?
 		                    			 boolean printToFile = false;
 		                    			 
+		                    			 //Should rows be written to the file while sampling instead of at the end? (memory no longer grows with the sample size)
+		                    			 boolean streamToFile = false;
+		                    			 
+		                    			 //Should the file use the binary columnar format instead of csv? (read it back with util.ColumnarResultReader)
+		                    			 boolean binaryFormat = false;
+		                    			 
+		                    			 //Should the phases of the algorithms be timed and their latency percentiles printed at the end?
+		                    			 //(a Flight Recorder recording additionally receives a mobilemst.Phase event per timed phase)
+		                    			 boolean profile = false;
+		                    			 
+		                    			 //Should completed samples be persisted, so that a restarted run continues where the last one stopped?
+		                    			 boolean checkpoint = false;
+		                    			 
 		      // path at which data is printed if "printToFile" is set to true
 		      String path = "C:\\Users\\Philipp\\Desktop\\Studium\\Masterarbeit\\Data\\samplesize_100000_n=30.csv";
+		      
+		      // path of the checkpoint if "checkpoint" is set to true, it is removed once the run has finished
+		      String checkpointPath = path + ".checkpoint";
 		//////////////////////////////////////////////////////////////////////////////////////////////////
 		//////////////////////////////////////////////////////////////////////////////////////////////////
 		
 		
 		//initialization
 		
-		// seed can be chosen arbitrarily. Accompanying raw data was produced using seed 13052021 //
+		// seed can be chosen arbitrarily. Accompanying raw data was produced using seed 13052021 with a single sequential Random, //
+		// now every sample derives its own seed from it (so results do not depend on the number of threads)
+		// and the seed no longer reproduces that data
 		long seed = 13052021;
-		Random random = new Random(seed);
 		
-		//sample pointset
-		MovingPointSet2D pointset = new MovingPointSet2D(pointsetSize);
-		Data data = new Data(sampleSize, pointsetSize);
+		Data data;
+		if(printToFile && streamToFile) {
+			//at most 1024 samples are held in memory, finished rows are written in sample order
+			ResultSink sink = binaryFormat ? new BinaryResultSink(path) : new CsvResultSink(path);
+			data = new Data(sampleSize, pointsetSize, sink, 1024);
+		}
+		else if(onlineStatistics && !printToFile) {
+			//no rows are kept, the window of 1024 samples is only used to checkpoint them in order
+			data = new Data(sampleSize, pointsetSize, null, 1024);
+		}
+		else {
+			data = new Data(sampleSize, pointsetSize);
+		}
+		if(onlineStatistics) {
+			data.enableStatistics();
+		}
 		
 		GraphDrawing nonPlanarMST = null;
 		GraphDrawing crossingStable = null;
@@ -63,88 +114,54 @@ public class Main {
 		GraphDrawing branchAndBound = null;
 		GraphDrawing yMono = null;
 		
-		//number of edges visited in each algorithm
-		int nonPlanarEdgesConsidered = 0;
-		int crossingStableEdgesConsidered = 0;
-		int greedyEdgesConsidered = 0;
-		int bruteForceEdgesConsidered = 0;
-		int branchAndBoundEdgesConsidered = 0;
-		
-		//number of comparisons required to maintain planarity
-		int greedyCrossingsConsidered = 0;
-		int bruteForceCrossingsConsidered = 0;
-		int branchAndBoundCrossingsConsidered = 0;
-		
-		//weight of the spanning tree produced by each algorithm
-		double nonPlanarWeight = 0;
-		double crossingStableWeight = 0;
-		double greedyWeight = 0;
-		double bruteForceWeight = 0;
-		double branchAndBoundWeight = 0;
-		double yMonotoneWeight = 0;
-		
 		//statistical evaluation
 		if (statistics) {
-			for (int i = 1; i <= sampleSize; i++) {
-				float progressPercent = ((float) i/ (float) sampleSize)*100;
-				if(progressPercent == (int) progressPercent) {
-					System.out.println("Sampling " + progressPercent + "% completed");
-				}
-
-				pointset.randomizeMovingPointSet(random);
-				pointset.enforceGeneralPosition(random);
-				
-				nonPlanarMST = new GraphDrawing(pointset);
-				nonPlanarEdgesConsidered = nonPlanarMST.kruskal();
-				nonPlanarWeight = nonPlanarMST.getTotalWeight();
-				
-				data.addNonPlanarMST(nonPlanarWeight, nonPlanarEdgesConsidered);
-				
-				crossingStable = new GraphDrawing(pointset);
-				crossingStableEdgesConsidered = crossingStable.crossingStableMST();
-				crossingStableWeight = crossingStable.getTotalWeight();
-				
-				data.addCrossingStableMST(crossingStableWeight, crossingStableEdgesConsidered);
-				
-				greedy = new GraphDrawing(pointset);
-				greedyEdgesConsidered = greedy.movingKruskal();
-				greedyCrossingsConsidered = greedy.getComparisonsCrossingCriterion();
-				greedyWeight = greedy.getTotalWeight();
-				
-				data.addGreedyST(greedyWeight, greedyEdgesConsidered, greedyCrossingsConsidered);
-				
-				bruteForce = new GraphDrawing(pointset);
-				bruteForceEdgesConsidered = bruteForce.optimalSlow();
-				bruteForceCrossingsConsidered = bruteForce.getComparisonsCrossingCriterion();
-				bruteForceWeight = bruteForce.getTotalWeight();
-				
-				data.addBruteForceMST(bruteForceWeight, bruteForceEdgesConsidered, bruteForceCrossingsConsidered);
-				
-				branchAndBound = new GraphDrawing(pointset);
-				branchAndBoundEdgesConsidered = branchAndBound.branchAndBound();
-				branchAndBoundCrossingsConsidered = branchAndBound.getComparisonsCrossingCriterion();
-				branchAndBoundWeight = branchAndBound.getTotalWeight();
-				
-				data.addBranchAndBoundMST(branchAndBoundWeight, branchAndBoundEdgesConsidered, branchAndBoundCrossingsConsidered);
-				
-				if(watchBaB) {
-					DebugGraphDrawing debug = new DebugGraphDrawing(pointset);
-					debug.setBestMST(bruteForce.getEdgeList());
-					debug.branchAndBound();
-				}
-				
-				yMono = new GraphDrawing(pointset);
-				yMonotoneWeight = yMono.yMonotonePath();
-				
-				data.addYMonotonePath(yMonotoneWeight);
-				
-				
-				
+			Profiler.setEnabled(profile);
+			SamplingEngine engine = new SamplingEngine(seed, sampleSize, pointsetSize, data);
+			engine.setParallelism(parallelism);
+			engine.setWatchBaB(watchBaB);
+			engine.setCompareWarmStart(compareWarmStart);
+			engine.setTranspositionTableSize(transpositionTableSize);
+			Checkpoint progress = checkpoint ? new Checkpoint(checkpointPath) : null;
+			engine.setCheckpoint(progress);
+			engine.run();
+			if(progress != null) {
+				progress.close();
+			}
+			
+			//spanning trees of the last sample are visualised (unless it was restored from the checkpoint)
+			SamplingEngine.Sample lastSample = engine.getLastSample();
+			if(lastSample != null) {
+				nonPlanarMST = lastSample.getNonPlanarMST();
+				crossingStable = lastSample.getCrossingStable();
+				greedy = lastSample.getGreedy();
+				bruteForce = lastSample.getBruteForce();
+				branchAndBound = lastSample.getBranchAndBound();
+				yMono = lastSample.getyMono();
+			}
+			
+			if(data.isStreaming()) {
+				data.close();
 			}
-			if(printToFile) {
+			else if(printToFile && binaryFormat) {
+				data.printToBinaryFile(path);
+			}
+			else if(printToFile) {
 				data.printToFile(path);
 			}
 			
+			if(onlineStatistics) {
+				data.getStatistics().print(System.out);
+			}
+			
+			if(profile) {
+				Profiler.print(System.out);
+			}
+			
+			if(progress != null) {
+				progress.delete();
+			}
+			
 		}
 		
 		//
@@ -161,7 +178,7 @@ public class Main {
 		//---------------------------------------------------------------------------------------------------------------------------------
 		//	
 		
-		if(visualisation) {
+		if(visualisation && nonPlanarMST != null) {
 			
 			JFrame window = new JFrame();
 			window.setSize(1500, 1500);
@@ -0,0 +1,340 @@
+package main;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import drawings.DebugGraphDrawing;
+import drawings.GraphDrawing;
+import drawings.MovingPointSet2D;
+import util.Checkpoint;
+import util.Data;
+import util.SamplingMetrics;
+
+public class SamplingEngine {
+
+	private long masterSeed;
+	private int sampleSize;
+	private int pointsetSize;
+	private Data data;
+
+	//number of worker threads sampling in parallel
+	private int parallelism;
+
+	//should the Branch-and-Bound algorithm be visualized step by step? (forces sequential sampling)
+	private boolean watchBaB;
+
+	//should branch-and-bound additionally run without the incumbent of movingKruskal to compare both?
+	private boolean compareWarmStart;
+
+	//how many subproblems the exact algorithms memoize per sample, 0 disables memoization
+	private int transpositionTableSize;
+
+	//journal of completed samples an interrupted run resumes from, null if the run isn't checkpointed
+	private Checkpoint checkpoint;
+
+	//throughput, latencies and solver progress, registered over JMX while the engine runs
+	private SamplingMetrics metrics;
+
+	//lowest sample no worker has claimed yet, only used when the data is streamed
+	private AtomicInteger nextSample;
+
+	//spanning trees computed for the last sample, kept for visualisation
+	private volatile Sample lastSample;
+
+	public SamplingEngine(long masterSeed, int sampleSize, int pointsetSize, Data data) {
+		this.masterSeed = masterSeed;
+		this.sampleSize = sampleSize;
+		this.pointsetSize = pointsetSize;
+		this.data = data;
+		this.parallelism = Runtime.getRuntime().availableProcessors();
+		this.watchBaB = false;
+		this.compareWarmStart = false;
+		this.transpositionTableSize = 0;
+		this.metrics = new SamplingMetrics(sampleSize);
+	}
+
+	//samples all pointsets and stores the results in the data object
+	public void run() throws IOException {
+		int workers = this.watchBaB ? 1 : this.parallelism;
+		if(this.compareWarmStart) {
+			this.data.enableWarmStartComparison();
+		}
+
+		//samples already in the checkpoint are restored instead of sampled again
+		int first = 0;
+		if(this.checkpoint != null) {
+			first = this.data.resume(this.checkpoint, getConfiguration());
+			if(first > 0) {
+				System.out.println("Resuming after " + first + " samples from the checkpoint");
+			}
+		}
+		if(first >= this.sampleSize) {
+			return;
+		}
+		this.metrics.start(first);
+		this.metrics.register();
+
+		//split the samples into a few slices per worker so that uneven sample costs can be balanced
+		int sliceSize = Math.max(1, (this.sampleSize - first) / (workers * 8));
+
+		ForkJoinPool pool = new ForkJoinPool(workers);
+		try {
+			if(this.data.isStreaming()) {
+				//streamed rows are written in sample order, so all workers claim the lowest unclaimed sample
+				this.nextSample = new AtomicInteger(first);
+				SampleQueue[] queues = new SampleQueue[workers];
+				for(int i = 0; i < workers; i++) {
+					queues[i] = new SampleQueue();
+				}
+				pool.invoke(new RecursiveAction() {
+					@Override
+					protected void compute() {
+						invokeAll(queues);
+					}
+				});
+			}
+			else {
+				pool.invoke(new SampleRange(first, this.sampleSize, sliceSize));
+			}
+		}
+		finally {
+			pool.shutdown();
+			this.metrics.unregister();
+		}
+	}
+
+	//describes everything the results of a sample depend on, a checkpoint only resumes runs with the same description
+	public String getConfiguration() {
+		return "seed=" + this.masterSeed + ",sampleSize=" + this.sampleSize + ",pointsetSize=" + this.pointsetSize
+				+ ",compareWarmStart=" + this.compareWarmStart + ",transpositionTableSize=" + this.transpositionTableSize;
+	}
+
+	//derives the seed of a single sample from the master seed, independent of the order samples are processed in
+	public static long sampleSeed(long masterSeed, int sample) {
+		//SplitMix64 finalizer applied to the sample index scaled by the golden ratio
+		long z = masterSeed + (sample + 1) * 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	//randomizes the argument pointset for the given sample, runs all algorithms on it and stores the results
+	public Sample runSample(int sample, MovingPointSet2D pointset) {
+		Random random = new Random(sampleSeed(this.masterSeed, sample));
+		pointset.randomizeMovingPointSet(random);
+		pointset.enforceGeneralPosition(random);
+
+		Sample result = new Sample();
+
+		//the candidate edges shared by all algorithms are built up front, so they don't count towards the first algorithm
+		long start = System.nanoTime();
+		pointset.getEdgePool();
+		start = lap("edgePool", start);
+
+		result.nonPlanarMST = new GraphDrawing(pointset);
+		int nonPlanarEdgesConsidered = result.nonPlanarMST.kruskal();
+		start = lap("kruskal", start);
+		this.data.setNonPlanarMST(sample, result.nonPlanarMST.getTotalWeight(), nonPlanarEdgesConsidered);
+
+		result.crossingStable = new GraphDrawing(pointset);
+		int crossingStableEdgesConsidered = result.crossingStable.crossingStableMST();
+		start = lap("crossingStableMST", start);
+		this.data.setCrossingStableMST(sample, result.crossingStable.getTotalWeight(), crossingStableEdgesConsidered);
+
+		result.greedy = new GraphDrawing(pointset);
+		int greedyEdgesConsidered = result.greedy.movingKruskal();
+		start = lap("movingKruskal", start);
+		this.data.setGreedyST(sample, result.greedy.getTotalWeight(), greedyEdgesConsidered, result.greedy.getComparisonsCrossingCriterion());
+
+		result.bruteForce = new GraphDrawing(pointset);
+		result.bruteForce.setTranspositionTableSize(this.transpositionTableSize);
+		int bruteForceEdgesConsidered = result.bruteForce.optimalSlow();
+		lap("optimalSlow", start);
+		this.data.setBruteForceMST(sample, result.bruteForce.getTotalWeight(), bruteForceEdgesConsidered, result.bruteForce.getComparisonsCrossingCriterion());
+
+		//the tree of movingKruskal is the incumbent branch-and-bound starts from
+		result.branchAndBound = new GraphDrawing(pointset);
+		result.branchAndBound.setTranspositionTableSize(this.transpositionTableSize);
+		start = System.nanoTime();
+		int branchAndBoundEdgesConsidered = result.branchAndBound.branchAndBound(result.greedy.getEdgeList());
+		long warmStartNanos = System.nanoTime() - start;
+		this.metrics.recordLatency("branchAndBound", warmStartNanos);
+		this.data.setBranchAndBoundMST(sample, result.branchAndBound.getTotalWeight(), branchAndBoundEdgesConsidered, result.branchAndBound.getComparisonsCrossingCriterion());
+
+		if(this.compareWarmStart) {
+			GraphDrawing coldStart = new GraphDrawing(pointset);
+			coldStart.setTranspositionTableSize(this.transpositionTableSize);
+			start = System.nanoTime();
+			int coldStartEdgesConsidered = coldStart.branchAndBound(null);
+			long coldStartNanos = System.nanoTime() - start;
+			this.metrics.recordLatency("branchAndBoundColdStart", coldStartNanos);
+			this.data.setWarmStartComparison(sample, warmStartNanos, coldStartEdgesConsidered, coldStartNanos);
+		}
+
+		if(this.watchBaB) {
+			DebugGraphDrawing debug = new DebugGraphDrawing(pointset);
+			debug.setBestMST(result.bruteForce.getEdgeList());
+			debug.branchAndBound();
+		}
+
+		start = System.nanoTime();
+		result.yMono = new GraphDrawing(pointset);
+		this.data.setYMonotonePath(sample, result.yMono.yMonotonePath());
+		lap("yMonotonePath", start);
+
+		return result;
+	}
+
+	//runs a sample and hands it to the data object
+	private void sample(int i, MovingPointSet2D pointset) {
+		Sample result = runSample(i, pointset);
+		if(i == this.sampleSize - 1) {
+			this.lastSample = result;
+		}
+		this.data.completeSample(i);
+		sampleCompleted();
+	}
+
+	//records the latency of the algorithm that started at the argument time and returns the current time
+	private long lap(String algorithm, long start) {
+		long now = System.nanoTime();
+		this.metrics.recordLatency(algorithm, now - start);
+		return now;
+	}
+
+	//counts a finished sample and reports progress whenever another whole percent of the samples is completed
+	private void sampleCompleted() {
+		int done = this.metrics.sampleCompleted();
+		long percent = (long) done * 100 / this.sampleSize;
+		if(percent != (long) (done - 1) * 100 / this.sampleSize) {
+			double eta = this.metrics.getEtaSeconds();
+			System.out.println(String.format(Locale.ROOT, "Sampling %d%% completed (%.1f samples/s, ETA %s)",
+					percent, this.metrics.getSamplesPerSecond(), eta < 0 ? "unknown" : formatSeconds((long) Math.ceil(eta))));
+		}
+	}
+
+	//formats a duration as h:mm:ss
+	private static String formatSeconds(long seconds) {
+		return String.format(Locale.ROOT, "%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+	}
+
+	//task sampling a contiguous slice of sample indices, splitting it further while it is larger than sliceSize
+	private class SampleRange extends RecursiveAction {
+
+		private int from;
+		private int to;
+		private int sliceSize;
+
+		SampleRange(int from, int to, int sliceSize) {
+			this.from = from;
+			this.to = to;
+			this.sliceSize = sliceSize;
+		}
+
+		@Override
+		protected void compute() {
+			if(this.to - this.from > this.sliceSize) {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new SampleRange(this.from, middle, this.sliceSize), new SampleRange(middle, this.to, this.sliceSize));
+				return;
+			}
+			//every slice works on its own pointset which is reused for all of its samples
+			MovingPointSet2D pointset = new MovingPointSet2D(pointsetSize);
+			for(int i = this.from; i < this.to; i++) {
+				sample(i, pointset);
+			}
+		}
+	}
+
+	//task sampling whichever sample is the lowest unclaimed one until all are claimed
+	private class SampleQueue extends RecursiveAction {
+
+		@Override
+		protected void compute() {
+			MovingPointSet2D pointset = new MovingPointSet2D(pointsetSize);
+			for(int i = nextSample.getAndIncrement(); i < sampleSize; i = nextSample.getAndIncrement()) {
+				try {
+					//blocks while the sample is too far ahead of the rows written so far
+					data.beginSample(i);
+				}
+				catch(InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				sample(i, pointset);
+			}
+		}
+	}
+
+	//spanning trees computed by each algorithm on a single sample
+	public static class Sample {
+
+		private GraphDrawing nonPlanarMST;
+		private GraphDrawing crossingStable;
+		private GraphDrawing greedy;
+		private GraphDrawing bruteForce;
+		private GraphDrawing branchAndBound;
+		private GraphDrawing yMono;
+
+		public GraphDrawing getNonPlanarMST() {
+			return nonPlanarMST;
+		}
+
+		public GraphDrawing getCrossingStable() {
+			return crossingStable;
+		}
+
+		public GraphDrawing getGreedy() {
+			return greedy;
+		}
+
+		public GraphDrawing getBruteForce() {
+			return bruteForce;
+		}
+
+		public GraphDrawing getBranchAndBound() {
+			return branchAndBound;
+		}
+
+		public GraphDrawing getyMono() {
+			return yMono;
+		}
+	}
+
+	public void setParallelism(int parallelism) {
+		this.parallelism = Math.max(1, parallelism);
+	}
+
+	public int getParallelism() {
+		return this.parallelism;
+	}
+
+	public void setWatchBaB(boolean watchBaB) {
+		this.watchBaB = watchBaB;
+	}
+
+	public void setCompareWarmStart(boolean compareWarmStart) {
+		this.compareWarmStart = compareWarmStart;
+	}
+
+	public void setTranspositionTableSize(int transpositionTableSize) {
+		this.transpositionTableSize = transpositionTableSize;
+	}
+
+	public void setCheckpoint(Checkpoint checkpoint) {
+		this.checkpoint = checkpoint;
+	}
+
+	public SamplingMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	public Sample getLastSample() {
+		return this.lastSample;
+	}
+
+}
@@ -0,0 +1,163 @@
+package util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+//writes all rows into a binary file with one fixed width column per metric, read back by ColumnarResultReader
+//
+//layout (little endian): magic, version, pointset size, sample size, number of rows written, number of columns,
+//then per column its type ('F' float, 'I' int, 'L' long), the file offset of its data and its name,
+//padded to 8 bytes, followed by the columns, each sized for the full sample size and padded to 8 bytes
+public class BinaryResultSink implements ResultSink {
+
+	static final byte[] MAGIC = "MMSTCOLS".getBytes(StandardCharsets.US_ASCII);
+	static final int VERSION = 1;
+
+	//position of the number of rows written in the header
+	static final int ROW_COUNT_OFFSET = 24;
+
+	//types of the columns, which are the metrics of SampleRecord in the same order
+	private static final byte[] TYPES = {
+			'F', 'F', 'F', 'F', 'F', 'F',
+			'I', 'I', 'I', 'I', 'I',
+			'I', 'I', 'I',
+			'L', 'I', 'L'};
+	private FileChannel channel;
+
+	//rows buffered per column before they are written to their place in the file
+	private int blockRows;
+	private ByteBuffer[] blocks;
+	private long[] offsets;
+	private int columnCount;
+
+	//rows written to the file, and rows in the current blocks
+	private long rowCount;
+	private int blockSize;
+
+	public BinaryResultSink(String path) throws IOException {
+		this(path, 4096);
+	}
+
+	public BinaryResultSink(String path, int blockRows) throws IOException {
+		this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		this.blockRows = Math.max(1, blockRows);
+	}
+
+	@Override
+	public void begin(int pointsetSize, int sampleSize, boolean warmStartCompared) throws IOException {
+		this.columnCount = warmStartCompared ? TYPES.length : TYPES.length - SampleRecord.WARM_START_METRICS;
+
+		byte[][] names = new byte[this.columnCount][];
+		int headerSize = MAGIC.length + 4 + 4 + 8 + 8 + 4;
+		for(int c = 0; c < this.columnCount; c++) {
+			names[c] = SampleRecord.METRIC_NAMES[c].getBytes(StandardCharsets.UTF_8);
+			headerSize += 1 + 8 + 2 + names[c].length;
+		}
+		headerSize = pad(headerSize);
+
+		this.offsets = new long[this.columnCount];
+		this.blocks = new ByteBuffer[this.columnCount];
+		long offset = headerSize;
+		for(int c = 0; c < this.columnCount; c++) {
+			this.offsets[c] = offset;
+			offset += pad((long) sampleSize * width(TYPES[c]));
+			this.blocks[c] = ByteBuffer.allocate(this.blockRows * width(TYPES[c])).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		ByteBuffer header = ByteBuffer.allocate(headerSize).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(MAGIC);
+		header.putInt(VERSION);
+		header.putInt(pointsetSize);
+		header.putLong(sampleSize);
+		header.putLong(0);
+		header.putInt(this.columnCount);
+		for(int c = 0; c < this.columnCount; c++) {
+			header.put(TYPES[c]);
+			header.putLong(this.offsets[c]);
+			header.putShort((short) names[c].length);
+			header.put(names[c]);
+		}
+		header.clear();
+		writeFully(header, 0);
+
+		this.rowCount = 0;
+		this.blockSize = 0;
+	}
+
+	@Override
+	public void write(SampleRecord record) throws IOException {
+		ByteBuffer[] blocks = this.blocks;
+		blocks[0].putFloat(record.nonPlanarWeight);
+		blocks[1].putFloat(record.crossingStableWeight);
+		blocks[2].putFloat(record.greedyWeight);
+		blocks[3].putFloat(record.optimalWeight);
+		blocks[4].putFloat(record.branchAndBoundWeight);
+		blocks[5].putFloat(record.yMonotoneWeight);
+		blocks[6].putInt(record.nonPlanarEdgesVisited);
+		blocks[7].putInt(record.crossingStableEdgesVisited);
+		blocks[8].putInt(record.greedyEdgesVisited);
+		blocks[9].putInt(record.optimalEdgesVisited);
+		blocks[10].putInt(record.branchAndBoundEdgesVisited);
+		blocks[11].putInt(record.greedyCrossingsConsidered);
+		blocks[12].putInt(record.optimalCrossingsConsidered);
+		blocks[13].putInt(record.branchAndBoundCrossingsConsidered);
+		if(this.columnCount == TYPES.length) {
+			blocks[14].putLong(record.warmStartNanos);
+			blocks[15].putInt(record.coldStartEdgesVisited);
+			blocks[16].putLong(record.coldStartNanos);
+		}
+		this.blockSize++;
+		if(this.blockSize == this.blockRows) {
+			flush();
+		}
+	}
+
+	//writes the buffered rows of every column to their place in the file and updates the row count
+	private void flush() throws IOException {
+		for(int c = 0; c < this.columnCount; c++) {
+			ByteBuffer block = this.blocks[c];
+			block.flip();
+			writeFully(block, this.offsets[c] + this.rowCount * width(TYPES[c]));
+			block.clear();
+		}
+		this.rowCount += this.blockSize;
+		this.blockSize = 0;
+
+		ByteBuffer rowCount = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		rowCount.putLong(this.rowCount);
+		rowCount.flip();
+		writeFully(rowCount, ROW_COUNT_OFFSET);
+	}
+
+	private void writeFully(ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining()) {
+			position += this.channel.write(buffer, position);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(this.blocks != null && this.blockSize > 0) {
+			flush();
+		}
+		this.channel.close();
+	}
+
+	static int width(byte type) {
+		return type == 'L' ? 8 : 4;
+	}
+
+	private static int pad(int size) {
+		return (size + 7) & ~7;
+	}
+
+	private static long pad(long size) {
+		return (size + 7) & ~7L;
+	}
+
+}
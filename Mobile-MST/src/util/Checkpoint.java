@@ -0,0 +1,186 @@
+package util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+//journal of the completed samples of a run in sample order, so that an interrupted run can resume after its last persisted sample
+//
+//the file starts with a magic number, a version and the configuration of the run, followed by one fixed size record per sample
+public class Checkpoint {
+
+	private static final long MAGIC = 0x4D4D5354434B5054L;
+	private static final int VERSION = 1;
+
+	//bytes of a sample record
+	private static final int RECORD_SIZE = 4 + 6 * 4 + 8 * 4 + 8 + 4 + 8;
+
+	private File file;
+
+	//records are persisted at least this often
+	private long persistIntervalNanos;
+	private long lastPersisted;
+
+	private FileOutputStream fileOut;
+	private DataOutputStream out;
+
+	//number of samples in the journal
+	private int rows;
+
+	public Checkpoint(String path) {
+		this(path, 10000);
+	}
+
+	public Checkpoint(String path, long persistIntervalMillis) {
+		this.file = new File(path);
+		this.persistIntervalNanos = persistIntervalMillis * 1000000L;
+		this.rows = 0;
+	}
+
+	//reads the samples of an existing checkpoint with the same configuration and hands them to the consumer in order,
+	//or starts a new checkpoint if there is none, returns the number of samples read
+	//(a record that was only partially written when the run stopped is dropped)
+	int open(String configuration, RecordConsumer consumer) throws IOException {
+		long validLength = 0;
+		this.rows = 0;
+		if(this.file.exists() && this.file.length() > 0) {
+			try(DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(this.file)))) {
+				if(in.readLong() != MAGIC || in.readInt() != VERSION) {
+					throw new IOException("Not a checkpoint: " + this.file);
+				}
+				String stored = in.readUTF();
+				if(!stored.equals(configuration)) {
+					throw new IOException("Checkpoint " + this.file + " belongs to a different run: " + stored);
+				}
+				validLength = 8 + 4 + 2 + utfLength(stored);
+
+				SampleRecord record = new SampleRecord();
+				while(true) {
+					try {
+						read(in, record);
+					}
+					catch(EOFException e) {
+						break;
+					}
+					if(record.sample != this.rows) {
+						throw new IOException("Checkpoint " + this.file + " is corrupt at sample " + this.rows);
+					}
+					consumer.accept(record);
+					this.rows++;
+					validLength += RECORD_SIZE;
+				}
+			}
+			try(RandomAccessFile truncated = new RandomAccessFile(this.file, "rw")) {
+				truncated.setLength(validLength);
+			}
+		}
+
+		this.fileOut = new FileOutputStream(this.file, validLength > 0);
+		this.out = new DataOutputStream(new BufferedOutputStream(this.fileOut));
+		if(validLength == 0) {
+			this.out.writeLong(MAGIC);
+			this.out.writeInt(VERSION);
+			this.out.writeUTF(configuration);
+			persist();
+		}
+		this.lastPersisted = System.nanoTime();
+		return this.rows;
+	}
+
+	//appends the record of the next sample, persisting all appended records if the last time was long enough ago
+	void append(SampleRecord record) throws IOException {
+		DataOutputStream out = this.out;
+		out.writeInt(record.sample);
+		out.writeFloat(record.nonPlanarWeight);
+		out.writeFloat(record.crossingStableWeight);
+		out.writeFloat(record.greedyWeight);
+		out.writeFloat(record.optimalWeight);
+		out.writeFloat(record.branchAndBoundWeight);
+		out.writeFloat(record.yMonotoneWeight);
+		out.writeInt(record.nonPlanarEdgesVisited);
+		out.writeInt(record.crossingStableEdgesVisited);
+		out.writeInt(record.greedyEdgesVisited);
+		out.writeInt(record.optimalEdgesVisited);
+		out.writeInt(record.branchAndBoundEdgesVisited);
+		out.writeInt(record.greedyCrossingsConsidered);
+		out.writeInt(record.optimalCrossingsConsidered);
+		out.writeInt(record.branchAndBoundCrossingsConsidered);
+		out.writeLong(record.warmStartNanos);
+		out.writeInt(record.coldStartEdgesVisited);
+		out.writeLong(record.coldStartNanos);
+		this.rows++;
+
+		if(System.nanoTime() - this.lastPersisted >= this.persistIntervalNanos) {
+			persist();
+			this.lastPersisted = System.nanoTime();
+		}
+	}
+
+	private static void read(DataInputStream in, SampleRecord record) throws IOException {
+		record.reset(in.readInt());
+		record.nonPlanarWeight = in.readFloat();
+		record.crossingStableWeight = in.readFloat();
+		record.greedyWeight = in.readFloat();
+		record.optimalWeight = in.readFloat();
+		record.branchAndBoundWeight = in.readFloat();
+		record.yMonotoneWeight = in.readFloat();
+		record.nonPlanarEdgesVisited = in.readInt();
+		record.crossingStableEdgesVisited = in.readInt();
+		record.greedyEdgesVisited = in.readInt();
+		record.optimalEdgesVisited = in.readInt();
+		record.branchAndBoundEdgesVisited = in.readInt();
+		record.greedyCrossingsConsidered = in.readInt();
+		record.optimalCrossingsConsidered = in.readInt();
+		record.branchAndBoundCrossingsConsidered = in.readInt();
+		record.warmStartNanos = in.readLong();
+		record.coldStartEdgesVisited = in.readInt();
+		record.coldStartNanos = in.readLong();
+	}
+
+	//writes all appended records through to the disk
+	private void persist() throws IOException {
+		this.out.flush();
+		this.fileOut.getFD().sync();
+	}
+
+	//length of the string in modified UTF-8, as written by writeUTF
+	private static int utfLength(String string) {
+		int length = 0;
+		for(int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			length += (c >= 0x0001 && c <= 0x007F) ? 1 : (c <= 0x07FF ? 2 : 3);
+		}
+		return length;
+	}
+
+	//persists all appended records and closes the file
+	public void close() throws IOException {
+		if(this.out != null) {
+			persist();
+			this.out.close();
+			this.out = null;
+		}
+	}
+
+	//removes the checkpoint once its run has finished
+	public boolean delete() {
+		return this.file.delete();
+	}
+
+	public int getRows() {
+		return this.rows;
+	}
+
+	//receives the records of a checkpoint while it is opened
+	interface RecordConsumer {
+		void accept(SampleRecord record) throws IOException;
+	}
+
+}
@@ -0,0 +1,147 @@
+package util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+//reads a file written by BinaryResultSink, every column is memory-mapped so it can be scanned without copying
+public class ColumnarResultReader implements Closeable {
+
+	private FileChannel channel;
+
+	private int pointsetSize;
+	private long sampleSize;
+
+	//rows that were written completely, less than the sample size if the run did not finish
+	private int rowCount;
+
+	private String[] names;
+	private byte[] types;
+	private ByteBuffer[] columns;
+
+	public ColumnarResultReader(String path) throws IOException {
+		this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+
+		ByteBuffer fixed = this.channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryResultSink.ROW_COUNT_OFFSET + 12).order(ByteOrder.LITTLE_ENDIAN);
+		byte[] magic = new byte[BinaryResultSink.MAGIC.length];
+		fixed.get(magic);
+		if(!Arrays.equals(magic, BinaryResultSink.MAGIC)) {
+			throw new IOException("Not a columnar result file: " + path);
+		}
+		int version = fixed.getInt();
+		if(version != BinaryResultSink.VERSION) {
+			throw new IOException("Unsupported columnar result version " + version);
+		}
+		this.pointsetSize = fixed.getInt();
+		this.sampleSize = fixed.getLong();
+		this.rowCount = (int) fixed.getLong();
+		int columnCount = fixed.getInt();
+
+		this.names = new String[columnCount];
+		this.types = new byte[columnCount];
+		this.columns = new ByteBuffer[columnCount];
+		long[] offsets = new long[columnCount];
+		long position = fixed.position();
+		for(int c = 0; c < columnCount; c++) {
+			ByteBuffer entry = this.channel.map(FileChannel.MapMode.READ_ONLY, position, 11).order(ByteOrder.LITTLE_ENDIAN);
+			this.types[c] = entry.get();
+			offsets[c] = entry.getLong();
+			byte[] name = new byte[entry.getShort()];
+			this.channel.map(FileChannel.MapMode.READ_ONLY, position + 11, name.length).get(name);
+			this.names[c] = new String(name, StandardCharsets.UTF_8);
+			position += 11 + name.length;
+		}
+		for(int c = 0; c < columnCount; c++) {
+			long size = (long) this.rowCount * BinaryResultSink.width(this.types[c]);
+			this.columns[c] = this.channel.map(FileChannel.MapMode.READ_ONLY, offsets[c], size).order(ByteOrder.LITTLE_ENDIAN);
+		}
+	}
+
+	//returns the index of the column with the given name, -1 if there is none
+	public int getColumnIndex(String name) {
+		for(int c = 0; c < this.names.length; c++) {
+			if(this.names[c].equals(name)) {
+				return c;
+			}
+		}
+		return -1;
+	}
+
+	public float getFloat(int column, int row) {
+		check(column, 'F');
+		return this.columns[column].getFloat(4 * row);
+	}
+
+	public int getInt(int column, int row) {
+		check(column, 'I');
+		return this.columns[column].getInt(4 * row);
+	}
+
+	public long getLong(int column, int row) {
+		check(column, 'L');
+		return this.columns[column].getLong(8 * row);
+	}
+
+	//the column views share the mapped file, nothing is copied
+
+	public FloatBuffer getFloatColumn(int column) {
+		check(column, 'F');
+		return this.columns[column].duplicate().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer();
+	}
+
+	public IntBuffer getIntColumn(int column) {
+		check(column, 'I');
+		return this.columns[column].duplicate().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+	}
+
+	public LongBuffer getLongColumn(int column) {
+		check(column, 'L');
+		return this.columns[column].duplicate().order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+	}
+
+	private void check(int column, char type) {
+		if(this.types[column] != type) {
+			throw new IllegalArgumentException("Column " + this.names[column] + " is of type " + (char) this.types[column] + ", not " + type);
+		}
+	}
+
+	public int getPointsetSize() {
+		return this.pointsetSize;
+	}
+
+	public long getSampleSize() {
+		return this.sampleSize;
+	}
+
+	public int getRowCount() {
+		return this.rowCount;
+	}
+
+	public int getColumnCount() {
+		return this.names.length;
+	}
+
+	public String getColumnName(int column) {
+		return this.names[column];
+	}
+
+	public char getColumnType(int column) {
+		return (char) this.types[column];
+	}
+
+	//the mapped columns stay readable after closing
+	@Override
+	public void close() throws IOException {
+		this.channel.close();
+	}
+
+}
@@ -0,0 +1,97 @@
+package util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+
+//writes every row to a csv file as soon as it arrives, in the layout of Data.printToFile
+public class CsvResultSink implements ResultSink {
+
+	private BufferedWriter writer;
+
+	//the writer is flushed after this many rows, so a crashed run keeps what it sampled
+	private int flushInterval;
+	private int rowsSinceFlush;
+
+	private boolean warmStartCompared;
+
+	//reused for every row
+	private StringBuilder row;
+
+	public CsvResultSink(String path) throws FileNotFoundException {
+		this(path, 1000);
+	}
+
+	public CsvResultSink(String path, int flushInterval) throws FileNotFoundException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(new File(path))));
+		this.flushInterval = Math.max(1, flushInterval);
+		this.rowsSinceFlush = 0;
+		this.row = new StringBuilder(256);
+	}
+
+	@Override
+	public void begin(int pointsetSize, int sampleSize, boolean warmStartCompared) throws IOException {
+		this.warmStartCompared = warmStartCompared;
+		println("Test data for pointsets of size " + pointsetSize + ", sample size: " + sampleSize);
+		println("");
+		if(warmStartCompared) {
+			println("Weight Comparison,,,,,,,Edges Visited Comparison,,,,,,Crossings Considered Comparison,,,,Warm Start Comparison");
+			println("Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,y-Monotone Path,,Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,,"
+					+ "Branch-and-Bound Time ms (warm start),Branch-and-Bound Edges Visited (cold start),Branch-and-Bound Time ms (cold start)");
+		}
+		else {
+			println("Weight Comparison,,,,,,,Edges Visited Comparison,,,,,,Crossings Considered Comparison");
+			println("Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,y-Monotone Path,,Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,,Moving Kruskal,Brute Force MST,Branch-and-Bound MST");
+		}
+	}
+
+	@Override
+	public void write(SampleRecord record) throws IOException {
+		StringBuilder row = this.row;
+		row.setLength(0);
+		row.append(record.nonPlanarWeight).append(',');
+		row.append(record.crossingStableWeight).append(',');
+		row.append(record.greedyWeight).append(',');
+		row.append(record.optimalWeight).append(',');
+		row.append(record.branchAndBoundWeight).append(',');
+		row.append(record.yMonotoneWeight);
+		row.append(",,");
+		row.append(record.nonPlanarEdgesVisited).append(',');
+		row.append(record.crossingStableEdgesVisited).append(',');
+		row.append(record.greedyEdgesVisited).append(',');
+		row.append(record.optimalEdgesVisited).append(',');
+		row.append(record.branchAndBoundEdgesVisited);
+		row.append(",,");
+		row.append(record.greedyCrossingsConsidered).append(',');
+		row.append(record.optimalCrossingsConsidered).append(',');
+		row.append(record.branchAndBoundCrossingsConsidered).append(',');
+		if(this.warmStartCompared) {
+			row.append(',');
+			row.append(record.warmStartNanos / 1e6).append(',');
+			row.append(record.coldStartEdgesVisited).append(',');
+			row.append(record.coldStartNanos / 1e6);
+		}
+		this.writer.append(row);
+		this.writer.newLine();
+
+		this.rowsSinceFlush++;
+		if(this.rowsSinceFlush >= this.flushInterval) {
+			this.writer.flush();
+			this.rowsSinceFlush = 0;
+		}
+	}
+
+	private void println(String line) throws IOException {
+		this.writer.write(line);
+		this.writer.newLine();
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.writer.close();
+	}
+
+}
@@ -1,8 +1,10 @@
 package util;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 
 public class Data {
 	
@@ -38,11 +40,46 @@ public class Data {
 	private int[] branchAndBoundCrossingsConsidered;
 	private int branchAndBoundPointer;
 	
+	//collected data on branch-and-bound without the incumbent of movingKruskal, only if the warm start is compared
+	private boolean warmStartCompared;
+	private int[] coldStartEdgesVisited;
+	private long[] warmStartNanos;
+	private long[] coldStartNanos;
+	
 	//collected data on y-monotone path weights
 	private float[] yMonotoneWeight;
 	private int yMonotonePointer;
 	
+	//if set, rows are handed to the sink in sample order as soon as they are complete instead of being collected in the arrays
+	private ResultSink sink;
+	
+	//records of the samples in flight, sample i uses slot i % window
+	//(without a sink only allocated once a checkpoint needs the rows in order)
+	private SampleRecord[] window;
+	private int windowSize;
+	
+	//number of rows handed to the sink so far
+	private int written;
+	private boolean begun;
+	
+	//record each worker copies stored rows into for the statistics, or fills directly if no rows are kept
+	private ThreadLocal<SampleRecord> current;
+	
+	//if set, every complete row is also appended to the checkpoint in sample order
+	private Checkpoint checkpoint;
+	
+	//samples completed while storing the arrays, and the number of rows appended to the checkpoint from them
+	private BitSet completed;
+	private int journaled;
 	
+	//summary statistics aggregated by each worker, merged on request
+	private ThreadLocal<SampleStatistics> localStatistics;
+	private List<SampleStatistics> workerStatistics;
+	
+	//summary statistics of streamed rows, aggregated in sample order so that they don't depend on the scheduling
+	private SampleStatistics orderedStatistics;
+	
+	//collects all samples in memory until they are printed
 	public Data(int sampleSize, int pointsetSize) {
 		this.pointsetSize = pointsetSize;
 		this.sampleSize = sampleSize;
@@ -71,85 +108,451 @@ public class Data {
 		this.optimalPointer = 0;
 		this.branchAndBoundPointer = 0;
 		this.yMonotonePointer = 0;
+		
+		this.current = ThreadLocal.withInitial(SampleRecord::new);
+		this.warmStartCompared = false;
+	}
+	
+	//streams all samples to the sink, at most windowSize samples are held in memory at a time
+	//(samples must be announced with beginSample and finished with completeSample)
+	//if the sink is null no rows are kept at all, which only makes sense with enableStatistics: every worker then adds
+	//its samples to its own statistics in any order, and the window is only used if the run is checkpointed
+	public Data(int sampleSize, int pointsetSize, ResultSink sink, int windowSize) {
+		this.pointsetSize = pointsetSize;
+		this.sampleSize = sampleSize;
+		this.sink = sink;
+		this.windowSize = Math.max(1, windowSize);
+		if(sink != null) {
+			allocateWindow();
+		}
+		this.current = ThreadLocal.withInitial(SampleRecord::new);
+		this.written = 0;
+		this.warmStartCompared = false;
+	}
+	
+	private void allocateWindow() {
+		this.window = new SampleRecord[this.windowSize];
+		for(int i = 0; i < this.window.length; i++) {
+			this.window[i] = new SampleRecord();
+			this.window[i].reset(i);
+		}
+	}
+	
+	//aggregates summary statistics of all metrics while sampling (call before sampling starts)
+	public void enableStatistics() {
+		if(this.localStatistics == null) {
+			this.workerStatistics = new ArrayList<SampleStatistics>();
+			this.localStatistics = ThreadLocal.withInitial(() -> {
+				SampleStatistics statistics = new SampleStatistics(this.warmStartCompared);
+				synchronized(this.workerStatistics) {
+					this.workerStatistics.add(statistics);
+				}
+				return statistics;
+			});
+		}
+	}
+	
+	//returns the statistics of all completed samples, null if they are not enabled
+	public SampleStatistics getStatistics() {
+		if(this.localStatistics == null) {
+			return null;
+		}
+		SampleStatistics merged = new SampleStatistics(this.warmStartCompared);
+		synchronized(this) {
+			if(this.orderedStatistics != null) {
+				merged.merge(this.orderedStatistics);
+			}
+		}
+		synchronized(this.workerStatistics) {
+			for(SampleStatistics statistics : this.workerStatistics) {
+				merged.merge(statistics);
+			}
+		}
+		return merged;
+	}
+	
+	//returns true if rows pass through the window of samples in flight in sample order instead of being stored
+	//(samples must then be announced with beginSample)
+	public boolean isStreaming() {
+		return this.window != null;
+	}
+	
+	//restores all rows of the checkpoint of an interrupted run with the same configuration and appends
+	//all further rows to it, returns the number of restored samples, which are the first samples of the run
+	//(call after enableWarmStartComparison and enableStatistics, before sampling starts)
+	public synchronized int resume(Checkpoint checkpoint, String configuration) throws IOException {
+		this.checkpoint = checkpoint;
+		if(isStatisticsOnly()) {
+			//the checkpoint is appended in sample order
+			allocateWindow();
+		}
+		int restored = checkpoint.open(configuration, this::restore);
+		if(this.window != null) {
+			for(int i = 0; i < this.window.length; i++) {
+				this.window[(restored + i) % this.window.length].reset(restored + i);
+			}
+			this.written = restored;
+		}
+		else {
+			this.completed = new BitSet();
+			this.journaled = restored;
+		}
+		return restored;
+	}
+	
+	//returns true if rows are neither stored nor streamed, but only added to the statistics
+	private boolean isStatisticsOnly() {
+		return this.nonPlanarWeight == null && this.window == null;
+	}
+	
+	//hands a row of the checkpoint on as if its sample had just been completed
+	private void restore(SampleRecord record) throws IOException {
+		if(this.window == null) {
+			if(this.localStatistics != null) {
+				this.localStatistics.get().add(record);
+			}
+			store(record);
+			return;
+		}
+		if(this.localStatistics != null) {
+			orderedStatistics().add(record);
+		}
+		if(this.sink != null) {
+			if(!this.begun) {
+				this.begun = true;
+				this.sink.begin(this.pointsetSize, this.sampleSize, this.warmStartCompared);
+			}
+			this.sink.write(record);
+		}
+	}
+	
+	//waits until the sample fits into the window of samples in flight (only when streaming)
+	public void beginSample(int sample) throws InterruptedException {
+		if(this.window == null) {
+			return;
+		}
+		synchronized(this) {
+			while(sample >= this.written + this.window.length) {
+				wait();
+			}
+		}
+	}
+	
+	//marks the sample as complete and hands all rows that are complete in order to the sink, the checkpoint and the statistics
+	//(stored rows are added to the statistics of the calling worker right away)
+	public void completeSample(int sample) {
+		if(this.window != null) {
+			release(record(sample));
+			return;
+		}
+		if(isStatisticsOnly()) {
+			if(this.localStatistics != null) {
+				SampleRecord record = this.current.get();
+				record.sample = sample;
+				this.localStatistics.get().add(record);
+			}
+			return;
+		}
+		if(this.localStatistics != null) {
+			SampleRecord record = this.current.get();
+			fill(record, sample);
+			this.localStatistics.get().add(record);
+		}
+		if(this.checkpoint != null) {
+			journal(sample);
+		}
+	}
+	
+	private SampleStatistics orderedStatistics() {
+		if(this.orderedStatistics == null) {
+			this.orderedStatistics = new SampleStatistics(this.warmStartCompared);
+		}
+		return this.orderedStatistics;
+	}
+	
+	private synchronized void release(SampleRecord record) {
+		record.complete = true;
+		try {
+			if(!this.begun && this.sink != null) {
+				this.begun = true;
+				this.sink.begin(this.pointsetSize, this.sampleSize, this.warmStartCompared);
+			}
+			SampleRecord next = this.window[this.written % this.window.length];
+			while(next.complete) {
+				if(this.sink != null) {
+					this.sink.write(next);
+				}
+				if(this.checkpoint != null) {
+					this.checkpoint.append(next);
+				}
+				if(this.localStatistics != null) {
+					orderedStatistics().add(next);
+				}
+				next.reset(this.written + this.window.length);
+				this.written++;
+				next = this.window[this.written % this.window.length];
+			}
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		notifyAll();
+	}
+	
+	//appends the stored rows to the checkpoint as soon as all samples before them are complete
+	private synchronized void journal(int sample) {
+		this.completed.set(sample);
+		SampleRecord record = this.current.get();
+		try {
+			while(this.completed.get(this.journaled)) {
+				this.completed.clear(this.journaled);
+				fill(record, this.journaled);
+				this.checkpoint.append(record);
+				this.journaled++;
+			}
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	//closes the sink once all rows are written
+	public synchronized void close() throws IOException {
+		if(this.sink != null) {
+			if(!this.begun) {
+				this.begun = true;
+				this.sink.begin(this.pointsetSize, this.sampleSize, this.warmStartCompared);
+			}
+			this.sink.close();
+		}
+	}
+	
+	//returns the record of the sample, or null if the sample is stored in the arrays
+	//(without arrays and window every worker fills its own record, as it only works on one sample at a time)
+	private SampleRecord record(int sample) {
+		if(this.window != null) {
+			return this.window[sample % this.window.length];
+		}
+		if(this.nonPlanarWeight == null) {
+			return this.current.get();
+		}
+		return null;
+	}
+	
+	//prepares storage for comparing branch-and-bound with and without warm start
+	public void enableWarmStartComparison() {
+		if(!this.warmStartCompared && this.nonPlanarWeight != null) {
+			this.coldStartEdgesVisited = new int[this.sampleSize];
+			this.warmStartNanos = new long[this.sampleSize];
+			this.coldStartNanos = new long[this.sampleSize];
+		}
+		this.warmStartCompared = true;
 	}
 	
 	//add sampled data for Kruskal's algorithm
 	public void addNonPlanarMST(double weight, int edgesVisited) {
-		this.nonPlanarWeight[this.nonPlanarPointer] = (float) weight;
-		this.nonPlanarEdgesVisited[this.nonPlanarPointer] = edgesVisited;
+		setNonPlanarMST(this.nonPlanarPointer, weight, edgesVisited);
 		this.nonPlanarPointer++;
 	}
 	
 	//add sampled data for crossingStableMST algorithm
 	public void addCrossingStableMST(double weight, int edgesVisited) {
-		this.crossingStableWeight[this.crossingStablePointer] = (float) weight;
-		this.crossingStableEdgesVisited[this.crossingStablePointer] = edgesVisited;
+		setCrossingStableMST(this.crossingStablePointer, weight, edgesVisited);
 		this.crossingStablePointer++;
 	}
 	
 	//add sampled data for MovingKruskal algorithm
 	public void addGreedyST(double weight, int edgesVisited, int crossingsConsidered) {
-		this.greedyWeight[this.greedyPointer] = (float) weight;
-		this.greedyEdgesVisited[this.greedyPointer] = edgesVisited;
-		this.greedyCrossingsConsidered[this.greedyPointer] = crossingsConsidered;
+		setGreedyST(this.greedyPointer, weight, edgesVisited, crossingsConsidered);
 		this.greedyPointer++;
 	}
 	
 	//add sampled data for brute force algorithm
 	public void addBruteForceMST(double weight, int edgesVisited, int crossingsConsidered) {
-		this.optimalWeight[this.optimalPointer] = (float) weight;
-		this.optimalEdgesVisited[this.optimalPointer] = edgesVisited;
-		this.optimalCrossingsConsidered[this.optimalPointer] = crossingsConsidered;
+		setBruteForceMST(this.optimalPointer, weight, edgesVisited, crossingsConsidered);
 		this.optimalPointer++;
 	}
 	
 	//add sampled data for branch-and-bound algorithm
 	public void addBranchAndBoundMST(double weight, int edgesVisited, int crossingsConsidered) {
-		this.branchAndBoundWeight[this.branchAndBoundPointer] = (float) weight;
-		this.branchAndBoundEdgesVisited[this.branchAndBoundPointer] = edgesVisited;
-		this.branchAndBoundCrossingsConsidered[this.branchAndBoundPointer] = crossingsConsidered;
+		setBranchAndBoundMST(this.branchAndBoundPointer, weight, edgesVisited, crossingsConsidered);
 		this.branchAndBoundPointer++;
 	}
 	
 	//add sampled data for y-monotone path
 	public void addYMonotonePath(double weight) {
-		this.yMonotoneWeight[this.yMonotonePointer] = (float) weight;
+		setYMonotonePath(this.yMonotonePointer, weight);
 		this.yMonotonePointer++;
 	}
 	
+	//the set methods store data of a given sample index, so parallel workers can each fill their own slice
+	
+	//store sampled data for Kruskal's algorithm
+	public void setNonPlanarMST(int sample, double weight, int edgesVisited) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.nonPlanarWeight = (float) weight;
+			record.nonPlanarEdgesVisited = edgesVisited;
+			return;
+		}
+		this.nonPlanarWeight[sample] = (float) weight;
+		this.nonPlanarEdgesVisited[sample] = edgesVisited;
+	}
+	
+	//store sampled data for crossingStableMST algorithm
+	public void setCrossingStableMST(int sample, double weight, int edgesVisited) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.crossingStableWeight = (float) weight;
+			record.crossingStableEdgesVisited = edgesVisited;
+			return;
+		}
+		this.crossingStableWeight[sample] = (float) weight;
+		this.crossingStableEdgesVisited[sample] = edgesVisited;
+	}
+	
+	//store sampled data for MovingKruskal algorithm
+	public void setGreedyST(int sample, double weight, int edgesVisited, int crossingsConsidered) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.greedyWeight = (float) weight;
+			record.greedyEdgesVisited = edgesVisited;
+			record.greedyCrossingsConsidered = crossingsConsidered;
+			return;
+		}
+		this.greedyWeight[sample] = (float) weight;
+		this.greedyEdgesVisited[sample] = edgesVisited;
+		this.greedyCrossingsConsidered[sample] = crossingsConsidered;
+	}
+	
+	//store sampled data for brute force algorithm
+	public void setBruteForceMST(int sample, double weight, int edgesVisited, int crossingsConsidered) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.optimalWeight = (float) weight;
+			record.optimalEdgesVisited = edgesVisited;
+			record.optimalCrossingsConsidered = crossingsConsidered;
+			return;
+		}
+		this.optimalWeight[sample] = (float) weight;
+		this.optimalEdgesVisited[sample] = edgesVisited;
+		this.optimalCrossingsConsidered[sample] = crossingsConsidered;
+	}
+	
+	//store sampled data for branch-and-bound algorithm
+	public void setBranchAndBoundMST(int sample, double weight, int edgesVisited, int crossingsConsidered) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.branchAndBoundWeight = (float) weight;
+			record.branchAndBoundEdgesVisited = edgesVisited;
+			record.branchAndBoundCrossingsConsidered = crossingsConsidered;
+			return;
+		}
+		this.branchAndBoundWeight[sample] = (float) weight;
+		this.branchAndBoundEdgesVisited[sample] = edgesVisited;
+		this.branchAndBoundCrossingsConsidered[sample] = crossingsConsidered;
+	}
+	
+	//store branch-and-bound solve times with warm start and edges visited and solve time without
+	//(requires enableWarmStartComparison)
+	public void setWarmStartComparison(int sample, long warmStartNanos, int coldStartEdgesVisited, long coldStartNanos) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.warmStartNanos = warmStartNanos;
+			record.coldStartEdgesVisited = coldStartEdgesVisited;
+			record.coldStartNanos = coldStartNanos;
+			return;
+		}
+		this.warmStartNanos[sample] = warmStartNanos;
+		this.coldStartEdgesVisited[sample] = coldStartEdgesVisited;
+		this.coldStartNanos[sample] = coldStartNanos;
+	}
+	
+	//store sampled data for y-monotone path
+	public void setYMonotonePath(int sample, double weight) {
+		SampleRecord record = record(sample);
+		if(record != null) {
+			record.yMonotoneWeight = (float) weight;
+			return;
+		}
+		this.yMonotoneWeight[sample] = (float) weight;
+	}
+	
+	public int getSampleSize() {
+		return this.sampleSize;
+	}
+	
+	public int getPointsetSize() {
+		return this.pointsetSize;
+	}
+	
 	//Print all contained data to the file in specified path
-	public void printToFile(String path) throws FileNotFoundException {
-		File file = new File(path);
-		PrintWriter toFile = new PrintWriter(file);
-			toFile.println("Test data for pointsets of size " + this.pointsetSize + ", sample size: " + this.sampleSize);
-			toFile.println();
-			toFile.println("Weight Comparison,,,,,,,Edges Visited Comparison,,,,,,Crossings Considered Comparison");
-			toFile.println("Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,y-Monotone Path,,Non-Planar MST,Crossing-Stable MST,Moving Kruskal,Brute Force MST,Branch-and-Bound MST,,Moving Kruskal,Brute Force MST,Branch-and-Bound MST");
-			
-			String dataPoint;
-			
-			for (int i = 0; i < sampleSize; i++) {
-				dataPoint = "";
-				dataPoint += (this.nonPlanarWeight[i] + ",");
-				dataPoint += (this.crossingStableWeight[i] + ",");
-				dataPoint += (this.greedyWeight[i] + ",");
-				dataPoint += (this.optimalWeight[i] + ",");
-				dataPoint += (this.branchAndBoundWeight[i] + ",");
-				dataPoint += (this.yMonotoneWeight[i]);
-				dataPoint += ",,";
-				dataPoint += (this.nonPlanarEdgesVisited[i] + ",");
-				dataPoint += (this.crossingStableEdgesVisited[i] + ",");
-				dataPoint += (this.greedyEdgesVisited[i] + ",");
-				dataPoint += (this.optimalEdgesVisited[i] + ",");
-				dataPoint += (this.branchAndBoundEdgesVisited[i]);
-				dataPoint += ",,";
-				dataPoint += (this.greedyCrossingsConsidered[i] + ",");
-				dataPoint += (this.optimalCrossingsConsidered[i] + ",");
-				dataPoint += (this.branchAndBoundCrossingsConsidered[i] + ",");
-				
-				toFile.println(dataPoint);
-			}
-			toFile.close();
+	public void printToFile(String path) throws IOException {
+		print(new CsvResultSink(path, Integer.MAX_VALUE));
+	}
+	
+	//Print all contained data to the file in specified path in the binary columnar format
+	public void printToBinaryFile(String path) throws IOException {
+		print(new BinaryResultSink(path));
+	}
+	
+	//copies the stored data of the sample into the record
+	private void fill(SampleRecord record, int i) {
+		record.reset(i);
+		record.nonPlanarWeight = this.nonPlanarWeight[i];
+		record.crossingStableWeight = this.crossingStableWeight[i];
+		record.greedyWeight = this.greedyWeight[i];
+		record.optimalWeight = this.optimalWeight[i];
+		record.branchAndBoundWeight = this.branchAndBoundWeight[i];
+		record.yMonotoneWeight = this.yMonotoneWeight[i];
+		record.nonPlanarEdgesVisited = this.nonPlanarEdgesVisited[i];
+		record.crossingStableEdgesVisited = this.crossingStableEdgesVisited[i];
+		record.greedyEdgesVisited = this.greedyEdgesVisited[i];
+		record.optimalEdgesVisited = this.optimalEdgesVisited[i];
+		record.branchAndBoundEdgesVisited = this.branchAndBoundEdgesVisited[i];
+		record.greedyCrossingsConsidered = this.greedyCrossingsConsidered[i];
+		record.optimalCrossingsConsidered = this.optimalCrossingsConsidered[i];
+		record.branchAndBoundCrossingsConsidered = this.branchAndBoundCrossingsConsidered[i];
+		if(this.warmStartCompared) {
+			record.warmStartNanos = this.warmStartNanos[i];
+			record.coldStartEdgesVisited = this.coldStartEdgesVisited[i];
+			record.coldStartNanos = this.coldStartNanos[i];
+		}
+	}
+	
+	//copies the record into the arrays
+	private void store(SampleRecord record) {
+		int i = record.sample;
+		this.nonPlanarWeight[i] = record.nonPlanarWeight;
+		this.crossingStableWeight[i] = record.crossingStableWeight;
+		this.greedyWeight[i] = record.greedyWeight;
+		this.optimalWeight[i] = record.optimalWeight;
+		this.branchAndBoundWeight[i] = record.branchAndBoundWeight;
+		this.yMonotoneWeight[i] = record.yMonotoneWeight;
+		this.nonPlanarEdgesVisited[i] = record.nonPlanarEdgesVisited;
+		this.crossingStableEdgesVisited[i] = record.crossingStableEdgesVisited;
+		this.greedyEdgesVisited[i] = record.greedyEdgesVisited;
+		this.optimalEdgesVisited[i] = record.optimalEdgesVisited;
+		this.branchAndBoundEdgesVisited[i] = record.branchAndBoundEdgesVisited;
+		this.greedyCrossingsConsidered[i] = record.greedyCrossingsConsidered;
+		this.optimalCrossingsConsidered[i] = record.optimalCrossingsConsidered;
+		this.branchAndBoundCrossingsConsidered[i] = record.branchAndBoundCrossingsConsidered;
+		if(this.warmStartCompared) {
+			this.warmStartNanos[i] = record.warmStartNanos;
+			this.coldStartEdgesVisited[i] = record.coldStartEdgesVisited;
+			this.coldStartNanos[i] = record.coldStartNanos;
+		}
+	}
+	
+	//hands all collected rows to the sink and closes it
+	private void print(ResultSink toFile) throws IOException {
+		toFile.begin(this.pointsetSize, this.sampleSize, this.warmStartCompared);
+		SampleRecord record = new SampleRecord();
+		for (int i = 0; i < sampleSize; i++) {
+			fill(record, i);
+			toFile.write(record);
+		}
+		toFile.close();
 	}
 
 }
@@ -0,0 +1,96 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+//concurrent histogram of non-negative latencies in the layout of an HdrHistogram with 2 significant digits:
+//values below 256 are counted exactly, larger ones in buckets of 128 linear sub-buckets per power of two,
+//so every reported value is within 1/128 of a recorded one
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 8;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT >>> 1;
+
+	//enough buckets for every non-negative long
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF;
+
+	private AtomicLongArray counts;
+	private LongAdder count;
+	private LongAdder sum;
+	private AtomicLong max;
+
+	public LatencyHistogram() {
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.count = new LongAdder();
+		this.sum = new LongAdder();
+		this.max = new AtomicLong(0);
+	}
+
+	//records a value, negative values are recorded as 0
+	public void record(long value) {
+		value = Math.max(0, value);
+		this.counts.incrementAndGet(index(value));
+		this.count.increment();
+		this.sum.add(value);
+		long max = this.max.get();
+		while(value > max && !this.max.compareAndSet(max, value)) {
+			max = this.max.get();
+		}
+	}
+
+	private static int index(long value) {
+		if(value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		//value >>> shift lies in [SUB_BUCKET_HALF, SUB_BUCKET_COUNT)
+		int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+		return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+	}
+
+	//returns the middle of the range of values counted at the argument index
+	private static long value(int index) {
+		if(index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+		long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+		return (subBucket << shift) + (1L << (shift - 1));
+	}
+
+	//returns the smallest recorded value (up to the precision of the histogram) that the argument percentage of all values doesn't exceed
+	public long getValueAtPercentile(double percentile) {
+		long total = getCount();
+		if(total == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for(int i = 0; i < BUCKET_COUNT; i++) {
+			seen += this.counts.get(i);
+			if(seen >= rank) {
+				return Math.min(value(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	public long getCount() {
+		return this.count.sum();
+	}
+
+	public double getMean() {
+		long total = getCount();
+		return total == 0 ? Double.NaN : (double) this.sum.sum() / total;
+	}
+
+	public long getTotal() {
+		return this.sum.sum();
+	}
+
+	public long getMax() {
+		return this.max.get();
+	}
+
+}
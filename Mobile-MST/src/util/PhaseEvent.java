@@ -0,0 +1,74 @@
+package util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+
+import jdk.jfr.AnnotationElement;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventFactory;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+import jdk.jfr.ValueDescriptor;
+
+//Flight Recorder event of one timed phase of an algorithm, committed by the profiler while a recording includes it
+//(defined with an EventFactory instead of a subclass of jdk.jfr.Event, whose internal superclass is missing
+//from the symbols javac compiles against with --release 14)
+final class PhaseEvent {
+
+	private static final EventFactory FACTORY = EventFactory.create(
+			List.of(new AnnotationElement(Name.class, "mobilemst.Phase"),
+					new AnnotationElement(Label.class, "Algorithm Phase"),
+					new AnnotationElement(Category.class, new String[] {"Mobile MST"}),
+					new AnnotationElement(Description.class, "Wall-clock time of one phase of a spanning tree algorithm on one pointset"),
+					new AnnotationElement(StackTrace.class, false)),
+			List.of(new ValueDescriptor(String.class, "phase", List.of(new AnnotationElement(Label.class, "Phase"))),
+					new ValueDescriptor(int.class, "pointsetSize", List.of(new AnnotationElement(Label.class, "Pointset Size"))),
+					new ValueDescriptor(long.class, "elapsed", List.of(new AnnotationElement(Label.class, "Elapsed"),
+							new AnnotationElement(Timespan.class, Timespan.NANOSECONDS)))));
+
+	//methods of jdk.jfr.Event
+	private static final MethodHandle SHOULD_COMMIT;
+	private static final MethodHandle SET;
+	private static final MethodHandle COMMIT;
+
+	static {
+		try {
+			Class<?> event = Class.forName("jdk.jfr.Event");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			SHOULD_COMMIT = lookup.findVirtual(event, "shouldCommit", MethodType.methodType(boolean.class));
+			SET = lookup.findVirtual(event, "set", MethodType.methodType(void.class, int.class, Object.class));
+			COMMIT = lookup.findVirtual(event, "commit", MethodType.methodType(void.class));
+		}
+		catch(ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	private PhaseEvent() {
+	}
+
+	//commits an event if a recording includes it
+	static void commit(String phase, int pointsetSize, long elapsed) {
+		if(!FACTORY.getEventType().isEnabled()) {
+			return;
+		}
+		try {
+			Object event = FACTORY.newEvent();
+			if((boolean) SHOULD_COMMIT.invoke(event)) {
+				SET.invoke(event, 0, phase);
+				SET.invoke(event, 1, pointsetSize);
+				SET.invoke(event, 2, elapsed);
+				COMMIT.invoke(event);
+			}
+		}
+		catch(Throwable e) {
+			throw new IllegalStateException("Could not commit a phase event", e);
+		}
+	}
+
+}
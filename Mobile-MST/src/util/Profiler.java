@@ -0,0 +1,112 @@
+package util;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+//wall-clock timing of the phases of the algorithms per pointset size,
+//recorded into latency histograms and committed as Flight Recorder events (mobilemst.Phase) while a recording includes them
+//
+//usage: long start = Profiler.start(); ...; Profiler.stop(Phase.SORT, n, start);
+//profiling is off unless enabled with setEnabled or -Dmobilemst.profile=true, then start is a single field read and stop returns at once
+public final class Profiler {
+
+	public enum Phase {
+		EDGE_GENERATION("edge generation"),
+		PK_FILTER("point criterion filter"),
+		SORT("edge sorting"),
+		CROSSING_MATRIX("crossing matrix"),
+		DELAUNAY("delaunay triangulation"),
+		KRUSKAL("kruskal pass"),
+		CROSSING_STABLE("crossing-stable pass"),
+		MOVING_KRUSKAL("moving kruskal pass"),
+		EXHAUSTIVE_SEARCH("exhaustive search"),
+		BRANCH_AND_BOUND("branch-and-bound search");
+
+		private String label;
+
+		Phase(String label) {
+			this.label = label;
+		}
+
+		public String getLabel() {
+			return this.label;
+		}
+	}
+
+	//returned by start while profiling is disabled
+	private static final long DISABLED = Long.MIN_VALUE;
+
+	private static volatile boolean enabled = Boolean.getBoolean("mobilemst.profile");
+
+	//histograms of every phase by pointset size
+	private static final ConcurrentSkipListMap<Integer, LatencyHistogram[]> histograms = new ConcurrentSkipListMap<Integer, LatencyHistogram[]>();
+
+	private Profiler() {
+	}
+
+	public static void setEnabled(boolean enabled) {
+		Profiler.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	//returns the start time of a phase to be passed to stop
+	public static long start() {
+		return enabled ? System.nanoTime() : DISABLED;
+	}
+
+	//records the time since the argument start as a phase on a pointset of the argument size
+	public static void stop(Phase phase, int pointsetSize, long start) {
+		if(start == DISABLED) {
+			return;
+		}
+		long elapsed = System.nanoTime() - start;
+		getHistogram(phase, pointsetSize).record(elapsed);
+
+		PhaseEvent.commit(phase.getLabel(), pointsetSize, elapsed);
+	}
+
+	//returns the histogram of the phase on pointsets of the argument size, which is empty if it was never recorded
+	public static LatencyHistogram getHistogram(Phase phase, int pointsetSize) {
+		LatencyHistogram[] phases = histograms.get(pointsetSize);
+		if(phases == null) {
+			LatencyHistogram[] created = new LatencyHistogram[Phase.values().length];
+			for(int i = 0; i < created.length; i++) {
+				created[i] = new LatencyHistogram();
+			}
+			phases = histograms.putIfAbsent(pointsetSize, created);
+			if(phases == null) {
+				phases = created;
+			}
+		}
+		return phases[phase.ordinal()];
+	}
+
+	//discards all recorded times
+	public static void reset() {
+		histograms.clear();
+	}
+
+	//prints count, mean, percentiles and total of every recorded phase in microseconds, grouped by pointset size
+	public static void print(PrintStream out) {
+		out.println(String.format(Locale.ROOT, "%-26s %6s %10s %10s %10s %10s %10s %10s %12s",
+				"Phase (us)", "n", "Count", "Mean", "p50", "p90", "p99", "Max", "Total ms"));
+		for(Map.Entry<Integer, LatencyHistogram[]> entry : histograms.entrySet()) {
+			for(Phase phase : Phase.values()) {
+				LatencyHistogram histogram = entry.getValue()[phase.ordinal()];
+				if(histogram.getCount() == 0) {
+					continue;
+				}
+				out.println(String.format(Locale.ROOT, "%-26s %6d %10d %10.2f %10.2f %10.2f %10.2f %10.2f %12.3f",
+						phase.getLabel(), entry.getKey(), histogram.getCount(), histogram.getMean() / 1e3,
+						histogram.getValueAtPercentile(50) / 1e3, histogram.getValueAtPercentile(90) / 1e3,
+						histogram.getValueAtPercentile(99) / 1e3, histogram.getMax() / 1e3, histogram.getTotal() / 1e6));
+			}
+		}
+	}
+
+}
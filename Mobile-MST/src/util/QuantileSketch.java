@@ -0,0 +1,139 @@
+package util;
+
+//mergeable quantile sketch with relative error guarantees: non-negative values are counted in buckets
+//whose bounds grow geometrically, so every estimated quantile is within the relative accuracy of a true one
+public class QuantileSketch {
+
+	private double relativeAccuracy;
+	private double gamma;
+	private double logGamma;
+
+	//counts of values in (gamma^(i-1), gamma^i] at position i - offset
+	private long[] buckets;
+	private int offset;
+
+	//values that are 0 or too small for a bucket
+	private long zeroCount;
+	private long count;
+
+	private double min;
+	private double max;
+
+	//values below this are counted as 0
+	private static final double MIN_INDEXABLE = 1e-9;
+
+	public QuantileSketch() {
+		this(0.005);
+	}
+
+	public QuantileSketch(double relativeAccuracy) {
+		this.relativeAccuracy = relativeAccuracy;
+		this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+		this.logGamma = Math.log(this.gamma);
+		this.buckets = new long[0];
+		this.offset = 0;
+		this.zeroCount = 0;
+		this.count = 0;
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+	}
+
+	public void add(double value) {
+		add(value, 1);
+	}
+
+	private void add(double value, long times) {
+		this.count += times;
+		this.min = Math.min(this.min, value);
+		this.max = Math.max(this.max, value);
+		if(value < MIN_INDEXABLE) {
+			this.zeroCount += times;
+			return;
+		}
+		int index = (int) Math.ceil(Math.log(value) / this.logGamma);
+		grow(index, index);
+		this.buckets[index - this.offset] += times;
+	}
+
+	//adds all values of the other sketch, which must have the same relative accuracy
+	public void merge(QuantileSketch other) {
+		if(other.relativeAccuracy != this.relativeAccuracy) {
+			throw new IllegalArgumentException("Sketches of different accuracy cannot be merged");
+		}
+		if(other.count == 0) {
+			return;
+		}
+		if(other.buckets.length > 0) {
+			grow(other.offset, other.offset + other.buckets.length - 1);
+			for(int i = 0; i < other.buckets.length; i++) {
+				this.buckets[other.offset + i - this.offset] += other.buckets[i];
+			}
+		}
+		this.zeroCount += other.zeroCount;
+		this.count += other.count;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+	}
+
+	//makes room for the bucket indices from to to
+	private void grow(int from, int to) {
+		if(this.buckets.length == 0) {
+			this.buckets = new long[Math.max(16, to - from + 1)];
+			this.offset = from;
+			return;
+		}
+		int newFrom = Math.min(from, this.offset);
+		int newTo = Math.max(to, this.offset + this.buckets.length - 1);
+		if(newFrom == this.offset && newTo == this.offset + this.buckets.length - 1) {
+			return;
+		}
+		//grow by at least half so that a slowly widening range doesn't copy on every value
+		int slack = this.buckets.length / 2;
+		if(newFrom < this.offset) {
+			newFrom = Math.min(newFrom, this.offset - slack);
+		}
+		if(newTo > this.offset + this.buckets.length - 1) {
+			newTo = Math.max(newTo, this.offset + this.buckets.length - 1 + slack);
+		}
+		long[] grown = new long[newTo - newFrom + 1];
+		System.arraycopy(this.buckets, 0, grown, this.offset - newFrom, this.buckets.length);
+		this.buckets = grown;
+		this.offset = newFrom;
+	}
+
+	//returns an estimate of the q-quantile (0 <= q <= 1), NaN if no value was added
+	public double getQuantile(double q) {
+		if(this.count == 0) {
+			return Double.NaN;
+		}
+		if(q <= 0) {
+			return this.min;
+		}
+		if(q >= 1) {
+			return this.max;
+		}
+		long rank = (long) (q * (this.count - 1));
+		long seen = this.zeroCount;
+		if(rank < seen) {
+			return Math.max(this.min, 0);
+		}
+		for(int i = 0; i < this.buckets.length; i++) {
+			seen += this.buckets[i];
+			if(rank < seen) {
+				//the value with the smallest relative error to all values of the bucket
+				double estimate = 2 * Math.pow(this.gamma, i + this.offset) / (this.gamma + 1);
+				return Math.min(Math.max(estimate, this.min), this.max);
+			}
+		}
+		return this.max;
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getRelativeAccuracy() {
+		return this.relativeAccuracy;
+	}
+
+}
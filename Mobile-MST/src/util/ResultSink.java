@@ -0,0 +1,16 @@
+package util;
+
+import java.io.IOException;
+
+//receives the rows of a sampling run in ascending sample order
+public interface ResultSink {
+
+	//called once before the first row
+	public void begin(int pointsetSize, int sampleSize, boolean warmStartCompared) throws IOException;
+
+	//the record is reused afterwards, so implementations must not keep it
+	public void write(SampleRecord record) throws IOException;
+
+	public void close() throws IOException;
+
+}
@@ -0,0 +1,79 @@
+package util;
+
+//count, mean, variance, minimum and maximum of a stream of values in constant memory
+public class RunningStatistics {
+
+	private long count;
+	private double mean;
+
+	//sum of squared deviations from the mean (Welford)
+	private double m2;
+
+	private double min;
+	private double max;
+
+	public RunningStatistics() {
+		this.count = 0;
+		this.mean = 0;
+		this.m2 = 0;
+		this.min = Double.POSITIVE_INFINITY;
+		this.max = Double.NEGATIVE_INFINITY;
+	}
+
+	public void add(double value) {
+		this.count++;
+		double delta = value - this.mean;
+		this.mean += delta / this.count;
+		this.m2 += delta * (value - this.mean);
+		this.min = Math.min(this.min, value);
+		this.max = Math.max(this.max, value);
+	}
+
+	//adds all values of the other statistics (Chan et al.)
+	public void merge(RunningStatistics other) {
+		if(other.count == 0) {
+			return;
+		}
+		if(this.count == 0) {
+			this.count = other.count;
+			this.mean = other.mean;
+			this.m2 = other.m2;
+			this.min = other.min;
+			this.max = other.max;
+			return;
+		}
+		long count = this.count + other.count;
+		double delta = other.mean - this.mean;
+		this.mean += delta * other.count / count;
+		this.m2 += other.m2 + delta * delta * ((double) this.count * other.count / count);
+		this.count = count;
+		this.min = Math.min(this.min, other.min);
+		this.max = Math.max(this.max, other.max);
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	public double getMean() {
+		return this.count == 0 ? Double.NaN : this.mean;
+	}
+
+	//sample variance
+	public double getVariance() {
+		return this.count < 2 ? Double.NaN : this.m2 / (this.count - 1);
+	}
+
+	public double getStandardDeviation() {
+		return Math.sqrt(getVariance());
+	}
+
+	public double getMin() {
+		return this.count == 0 ? Double.NaN : this.min;
+	}
+
+	public double getMax() {
+		return this.count == 0 ? Double.NaN : this.max;
+	}
+
+}
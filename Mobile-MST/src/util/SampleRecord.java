@@ -0,0 +1,94 @@
+package util;
+
+//results of all algorithms on a single sample
+public class SampleRecord {
+
+	//metrics in the order of the csv columns, the last three only exist if the warm start is compared
+	static final String[] METRIC_NAMES = {
+			"Non-Planar MST Weight", "Crossing-Stable MST Weight", "Moving Kruskal Weight", "Brute Force MST Weight", "Branch-and-Bound MST Weight", "y-Monotone Path Weight",
+			"Non-Planar MST Edges Visited", "Crossing-Stable MST Edges Visited", "Moving Kruskal Edges Visited", "Brute Force MST Edges Visited", "Branch-and-Bound MST Edges Visited",
+			"Moving Kruskal Crossings Considered", "Brute Force MST Crossings Considered", "Branch-and-Bound MST Crossings Considered",
+			"Branch-and-Bound Time ns (warm start)", "Branch-and-Bound Edges Visited (cold start)", "Branch-and-Bound Time ns (cold start)"};
+	static final int WARM_START_METRICS = 3;
+
+	int sample;
+
+	float nonPlanarWeight;
+	int nonPlanarEdgesVisited;
+
+	float crossingStableWeight;
+	int crossingStableEdgesVisited;
+
+	float greedyWeight;
+	int greedyEdgesVisited;
+	int greedyCrossingsConsidered;
+
+	float optimalWeight;
+	int optimalEdgesVisited;
+	int optimalCrossingsConsidered;
+
+	float branchAndBoundWeight;
+	int branchAndBoundEdgesVisited;
+	int branchAndBoundCrossingsConsidered;
+
+	//only set if the warm start is compared
+	long warmStartNanos;
+	int coldStartEdgesVisited;
+	long coldStartNanos;
+
+	float yMonotoneWeight;
+
+	//has every algorithm stored its result?
+	boolean complete;
+
+	void reset(int sample) {
+		this.sample = sample;
+		this.nonPlanarWeight = 0;
+		this.nonPlanarEdgesVisited = 0;
+		this.crossingStableWeight = 0;
+		this.crossingStableEdgesVisited = 0;
+		this.greedyWeight = 0;
+		this.greedyEdgesVisited = 0;
+		this.greedyCrossingsConsidered = 0;
+		this.optimalWeight = 0;
+		this.optimalEdgesVisited = 0;
+		this.optimalCrossingsConsidered = 0;
+		this.branchAndBoundWeight = 0;
+		this.branchAndBoundEdgesVisited = 0;
+		this.branchAndBoundCrossingsConsidered = 0;
+		this.warmStartNanos = 0;
+		this.coldStartEdgesVisited = 0;
+		this.coldStartNanos = 0;
+		this.yMonotoneWeight = 0;
+		this.complete = false;
+	}
+
+	//returns the value of the metric at the given index of METRIC_NAMES
+	double getMetric(int metric) {
+		switch(metric) {
+		case 0: return this.nonPlanarWeight;
+		case 1: return this.crossingStableWeight;
+		case 2: return this.greedyWeight;
+		case 3: return this.optimalWeight;
+		case 4: return this.branchAndBoundWeight;
+		case 5: return this.yMonotoneWeight;
+		case 6: return this.nonPlanarEdgesVisited;
+		case 7: return this.crossingStableEdgesVisited;
+		case 8: return this.greedyEdgesVisited;
+		case 9: return this.optimalEdgesVisited;
+		case 10: return this.branchAndBoundEdgesVisited;
+		case 11: return this.greedyCrossingsConsidered;
+		case 12: return this.optimalCrossingsConsidered;
+		case 13: return this.branchAndBoundCrossingsConsidered;
+		case 14: return this.warmStartNanos;
+		case 15: return this.coldStartEdgesVisited;
+		case 16: return this.coldStartNanos;
+		default: throw new IllegalArgumentException("No metric " + metric);
+		}
+	}
+
+	public int getSample() {
+		return this.sample;
+	}
+
+}
@@ -0,0 +1,119 @@
+package util;
+
+import java.io.PrintStream;
+
+//summary statistics of all metrics over a stream of samples, in constant memory
+//(every worker can aggregate its own samples, the results are merged afterwards)
+public class SampleStatistics {
+
+	//weights of these algorithms are compared to the weight of the optimal planar tree
+	private static final int[] RATIO_METRICS = {0, 1, 2, 4, 5};
+	private static final int OPTIMAL_WEIGHT = 3;
+	private static final int BRANCH_AND_BOUND_WEIGHT = 4;
+
+	private boolean warmStartCompared;
+	private int metricCount;
+
+	//moments and quantiles of every metric, followed by those of the approximation ratios
+	private RunningStatistics[] moments;
+	private QuantileSketch[] quantiles;
+	private String[] names;
+
+	private long count;
+
+	public SampleStatistics(boolean warmStartCompared) {
+		this.warmStartCompared = warmStartCompared;
+		this.metricCount = warmStartCompared ? SampleRecord.METRIC_NAMES.length : SampleRecord.METRIC_NAMES.length - SampleRecord.WARM_START_METRICS;
+
+		int statistics = this.metricCount + RATIO_METRICS.length;
+		this.moments = new RunningStatistics[statistics];
+		this.quantiles = new QuantileSketch[statistics];
+		this.names = new String[statistics];
+		for(int i = 0; i < statistics; i++) {
+			this.moments[i] = new RunningStatistics();
+			this.quantiles[i] = new QuantileSketch();
+		}
+		System.arraycopy(SampleRecord.METRIC_NAMES, 0, this.names, 0, this.metricCount);
+		for(int r = 0; r < RATIO_METRICS.length; r++) {
+			this.names[this.metricCount + r] = SampleRecord.METRIC_NAMES[RATIO_METRICS[r]].replace(" Weight", "") + " Approximation Ratio";
+		}
+		this.count = 0;
+	}
+
+	public void add(SampleRecord record) {
+		this.count++;
+		for(int m = 0; m < this.metricCount; m++) {
+			double value = record.getMetric(m);
+			this.moments[m].add(value);
+			this.quantiles[m].add(value);
+		}
+
+		//the optimum is the brute force weight, or the branch-and-bound weight if brute force didn't run
+		double optimal = record.getMetric(OPTIMAL_WEIGHT);
+		if(optimal <= 0) {
+			optimal = record.getMetric(BRANCH_AND_BOUND_WEIGHT);
+		}
+		if(optimal > 0) {
+			for(int r = 0; r < RATIO_METRICS.length; r++) {
+				double ratio = record.getMetric(RATIO_METRICS[r]) / optimal;
+				this.moments[this.metricCount + r].add(ratio);
+				this.quantiles[this.metricCount + r].add(ratio);
+			}
+		}
+	}
+
+	//adds all samples of the other statistics, which must have been collected with the same warm start setting
+	public void merge(SampleStatistics other) {
+		if(other.warmStartCompared != this.warmStartCompared) {
+			throw new IllegalArgumentException("Statistics with and without warm start comparison cannot be merged");
+		}
+		this.count += other.count;
+		for(int i = 0; i < this.moments.length; i++) {
+			this.moments[i].merge(other.moments[i]);
+			this.quantiles[i].merge(other.quantiles[i]);
+		}
+	}
+
+	//returns the index of the statistic with the given name, -1 if there is none
+	public int indexOf(String name) {
+		for(int i = 0; i < this.names.length; i++) {
+			if(this.names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public int getStatisticsCount() {
+		return this.names.length;
+	}
+
+	public String getName(int statistic) {
+		return this.names[statistic];
+	}
+
+	public RunningStatistics getMoments(int statistic) {
+		return this.moments[statistic];
+	}
+
+	public QuantileSketch getQuantiles(int statistic) {
+		return this.quantiles[statistic];
+	}
+
+	public long getCount() {
+		return this.count;
+	}
+
+	//prints one csv line per statistic
+	public void print(PrintStream out) {
+		out.println("Summary of " + this.count + " samples");
+		out.println("Metric,Count,Mean,Standard Deviation,Min,Median,90th Percentile,99th Percentile,Max");
+		for(int i = 0; i < this.names.length; i++) {
+			RunningStatistics moments = this.moments[i];
+			QuantileSketch quantiles = this.quantiles[i];
+			out.println(this.names[i] + "," + moments.getCount() + "," + moments.getMean() + "," + moments.getStandardDeviation() + "," + moments.getMin()
+					+ "," + quantiles.getQuantile(0.5) + "," + quantiles.getQuantile(0.9) + "," + quantiles.getQuantile(0.99) + "," + moments.getMax());
+		}
+	}
+
+}
@@ -0,0 +1,191 @@
+package util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+//live metrics of a sampling run, updated by the sampling threads and read over JMX while registered
+public class SamplingMetrics implements SamplingMetricsMXBean {
+
+	public static final String OBJECT_NAME = "mobilemst:type=SamplingMetrics";
+
+	//number of most recent samples throughput and latencies are averaged over
+	private static final int WINDOW = 256;
+
+	private AtomicInteger sampleSize;
+	private AtomicInteger completed;
+	private long startNanos;
+
+	//completion times of the most recent samples in a ring buffer, guarded by the object
+	private long[] completionTimes;
+	private long completions;
+
+	//rolling latencies by algorithm in the order the algorithms were first recorded, guarded by the map
+	private Map<String, RollingMean> latencies;
+
+	public SamplingMetrics(int sampleSize) {
+		this.sampleSize = new AtomicInteger(sampleSize);
+		this.completed = new AtomicInteger(0);
+		this.completionTimes = new long[WINDOW];
+		this.latencies = new LinkedHashMap<String, RollingMean>();
+		this.startNanos = System.nanoTime();
+	}
+
+	//starts measuring throughput, the argument number of samples was already completed before (e.g. restored from a checkpoint)
+	public synchronized void start(int completed) {
+		this.completed.set(completed);
+		this.completions = 0;
+		this.startNanos = System.nanoTime();
+	}
+
+	//counts a completed sample and returns the number of samples completed so far
+	public int sampleCompleted() {
+		long now = System.nanoTime();
+		synchronized(this) {
+			this.completionTimes[(int) (this.completions % WINDOW)] = now;
+			this.completions++;
+		}
+		return this.completed.incrementAndGet();
+	}
+
+	//removes samples that won't be run after all from the sample size
+	public void skip(int samples) {
+		this.sampleSize.addAndGet(-samples);
+	}
+
+	public void recordLatency(String algorithm, long nanos) {
+		RollingMean mean;
+		synchronized(this.latencies) {
+			mean = this.latencies.get(algorithm);
+			if(mean == null) {
+				mean = new RollingMean();
+				this.latencies.put(algorithm, mean);
+			}
+		}
+		mean.add(nanos);
+	}
+
+	//registers the metrics on the platform MBean server, replacing metrics registered before
+	//and enables the progress reports of the branch-and-bound searches
+	public void register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(server.isRegistered(name)) {
+				server.unregisterMBean(name);
+			}
+			server.registerMBean(this, name);
+		}
+		catch(JMException e) {
+			throw new IllegalStateException("Could not register " + OBJECT_NAME, e);
+		}
+		SolverProgress.reset();
+		SolverProgress.setEnabled(true);
+	}
+
+	//unregisters the metrics if they are still the registered ones
+	public void unregister() {
+		SolverProgress.setEnabled(false);
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if(server.isRegistered(name) && server.isInstanceOf(name, SamplingMetrics.class.getName())) {
+				server.unregisterMBean(name);
+			}
+		}
+		catch(JMException e) {
+			throw new IllegalStateException("Could not unregister " + OBJECT_NAME, e);
+		}
+	}
+
+	@Override
+	public int getSampleSize() {
+		return this.sampleSize.get();
+	}
+
+	@Override
+	public int getSamplesCompleted() {
+		return this.completed.get();
+	}
+
+	@Override
+	public double getElapsedSeconds() {
+		return (System.nanoTime() - this.startNanos) / 1e9;
+	}
+
+	@Override
+	public synchronized double getSamplesPerSecond() {
+		if(this.completions == 0) {
+			return 0;
+		}
+		//samples completed since the oldest completion in the window, or since the start if the window isn't full yet
+		long oldest = this.startNanos;
+		long samples = this.completions;
+		if(this.completions > WINDOW) {
+			oldest = this.completionTimes[(int) (this.completions % WINDOW)];
+			samples = WINDOW - 1;
+		}
+		long nanos = System.nanoTime() - oldest;
+		return nanos <= 0 ? 0 : samples * 1e9 / nanos;
+	}
+
+	@Override
+	public double getEtaSeconds() {
+		double rate = getSamplesPerSecond();
+		if(rate <= 0) {
+			return -1;
+		}
+		return Math.max(0, getSampleSize() - getSamplesCompleted()) / rate;
+	}
+
+	@Override
+	public Map<String, Double> getRollingMeanLatencyMillis() {
+		Map<String, Double> means = new LinkedHashMap<String, Double>();
+		synchronized(this.latencies) {
+			for(Map.Entry<String, RollingMean> entry : this.latencies.entrySet()) {
+				means.put(entry.getKey(), entry.getValue().mean() / 1e6);
+			}
+		}
+		return means;
+	}
+
+	@Override
+	public long getBranchAndBoundNodesExplored() {
+		return SolverProgress.getNodesExplored();
+	}
+
+	@Override
+	public long getBranchAndBoundNodesPruned() {
+		return SolverProgress.getNodesPruned();
+	}
+
+	@Override
+	public Map<String, Double> getIncumbentWeights() {
+		return SolverProgress.getIncumbentWeights();
+	}
+
+	//mean of the most recent values
+	private static class RollingMean {
+
+		private long[] values = new long[WINDOW];
+		private long count;
+		private long sum;
+
+		synchronized void add(long value) {
+			int index = (int) (this.count % WINDOW);
+			this.sum += value - this.values[index];
+			this.values[index] = value;
+			this.count++;
+		}
+
+		synchronized double mean() {
+			return this.count == 0 ? Double.NaN : (double) this.sum / Math.min(this.count, WINDOW);
+		}
+	}
+
+}
@@ -0,0 +1,31 @@
+package util;
+
+import java.util.Map;
+
+//live metrics of a sampling run, registered as mobilemst:type=SamplingMetrics on the platform MBean server
+//(e.g. watched with jconsole or VisualVM while the run continues)
+public interface SamplingMetricsMXBean {
+
+	int getSampleSize();
+
+	int getSamplesCompleted();
+
+	double getElapsedSeconds();
+
+	//throughput over the most recently completed samples
+	double getSamplesPerSecond();
+
+	//estimated seconds until all samples are completed at the current throughput, -1 if unknown
+	double getEtaSeconds();
+
+	//mean latency of every algorithm over its most recent samples
+	Map<String, Double> getRollingMeanLatencyMillis();
+
+	long getBranchAndBoundNodesExplored();
+
+	long getBranchAndBoundNodesPruned();
+
+	//weight of the lightest tree the most recent branch-and-bound search of every sampling thread has found so far
+	Map<String, Double> getIncumbentWeights();
+
+}
@@ -0,0 +1,65 @@
+package util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+//live progress of the branch-and-bound searches of all threads, published by the searches while it is enabled
+//(searches count locally and only publish every few thousand nodes and whenever they find a lighter tree)
+public final class SolverProgress {
+
+	private static volatile boolean enabled = false;
+
+	private static final LongAdder nodesExplored = new LongAdder();
+	private static final LongAdder nodesPruned = new LongAdder();
+
+	//weight of the lightest tree the most recent search of every thread has found so far, by thread name
+	//(a parallel search publishes under the name of the thread that started it)
+	private static final ConcurrentHashMap<String, Double> incumbentWeights = new ConcurrentHashMap<String, Double>();
+
+	private SolverProgress() {
+	}
+
+	public static void setEnabled(boolean enabled) {
+		SolverProgress.enabled = enabled;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void addNodes(long explored, long pruned) {
+		nodesExplored.add(explored);
+		nodesPruned.add(pruned);
+	}
+
+	//publishes the incumbent weight of the search running on the current thread
+	public static void setIncumbentWeight(double weight) {
+		setIncumbentWeight(Thread.currentThread().getName(), weight);
+	}
+
+	public static void setIncumbentWeight(String thread, double weight) {
+		incumbentWeights.put(thread, weight);
+	}
+
+	public static long getNodesExplored() {
+		return nodesExplored.sum();
+	}
+
+	public static long getNodesPruned() {
+		return nodesPruned.sum();
+	}
+
+	//returns the incumbent weights by thread name, sorted by name
+	public static Map<String, Double> getIncumbentWeights() {
+		return new TreeMap<String, Double>(incumbentWeights);
+	}
+
+	public static void reset() {
+		nodesExplored.reset();
+		nodesPruned.reset();
+		incumbentWeights.clear();
+	}
+
+}